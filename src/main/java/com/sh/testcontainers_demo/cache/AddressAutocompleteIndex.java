@@ -0,0 +1,374 @@
+package com.sh.testcontainers_demo.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over the street and city values of all addresses.
+ * <p>
+ * Each field is held in a radix tree (a compressed trie) keyed by the lower-cased value,
+ * so a prefix lookup costs time proportional to the prefix length plus the number of
+ * suggestions returned, and never touches the database. The index is filled at startup
+ * and then kept up to date by the address service; because it also remembers the values
+ * indexed for every address ID, updates and deletes only need the ID.
+ * </p>
+ * <p>
+ * Values differing only in case share a key. A key counts the addresses holding each of its
+ * spellings, and is suggested with the first of them in alphabetical order, so the spelling
+ * shown only depends on the addresses indexed, not on the order they were written in.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@Component
+public class AddressAutocompleteIndex {
+
+    /**
+     * The address fields that can be autocompleted.
+     */
+    public enum Field {
+        STREET,
+        CITY;
+
+        /**
+         * Resolves a field from its case-insensitive name.
+         *
+         * @param name the name of the field
+         * @return the field, or empty if there is no field with that name
+         */
+        public static Optional<Field> of(String name) {
+            for (Field field : values()) {
+                if (field.name().equalsIgnoreCase(name)) {
+                    return Optional.of(field);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The indexed values of one address.
+     *
+     * @param id     the ID of the address
+     * @param street the street of the address
+     * @param city   the city of the address
+     */
+    public record Entry(Long id, String street, String city) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Values values = new Values();
+    private Map<Long, Entry> changedWhileRebuilding;
+
+    /**
+     * Returns the distinct values of a field starting with the given prefix, in alphabetical order.
+     * <p>
+     * Matching ignores case; the values are returned as they were stored.
+     * </p>
+     *
+     * @param field  the field to complete
+     * @param prefix the prefix typed so far
+     * @param limit  the maximum number of suggestions
+     * @return the matching values
+     */
+    public List<String> suggest(Field field, String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return values.tree(field).suggest(normalize(prefix), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the street and city of an address, replacing any values indexed for it before.
+     * <p>
+     * Inside a transaction the change is applied after commit, so a rolled back write
+     * never shows up in the suggestions.
+     * </p>
+     *
+     * @param entry the values of the address
+     */
+    public void put(Entry entry) {
+        afterCommit(() -> apply(entry.id(), entry));
+    }
+
+    /**
+     * Removes the values indexed for an address.
+     * <p>
+     * Inside a transaction the change is applied after commit.
+     * </p>
+     *
+     * @param id the ID of the address
+     */
+    public void remove(Long id) {
+        afterCommit(() -> apply(id, null));
+    }
+
+    /**
+     * Replaces the whole index with the given entries.
+     * <p>
+     * The new index is built aside while suggestions keep being served from the current one,
+     * and swapped in once complete. Changes applied in the meantime may be missing from the
+     * entries read, so they are recorded and applied again to the new index before the swap.
+     * </p>
+     *
+     * @param all opens the stream of the values of every address; the stream is closed once read
+     * @return the number of indexed addresses
+     */
+    public synchronized int rebuild(Supplier<Stream<Entry>> all) {
+        Map<Long, Entry> changed = new HashMap<>();
+        lock.writeLock().lock();
+        try {
+            changedWhileRebuilding = changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Values rebuilt = new Values();
+        boolean complete = false;
+        try (Stream<Entry> entries = all.get()) {
+            entries.forEach(entry -> rebuilt.apply(entry.id(), entry));
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (complete) {
+                    changed.forEach(rebuilt::apply);
+                    values = rebuilt;
+                }
+                changedWhileRebuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return size();
+    }
+
+    /**
+     * Returns the number of indexed addresses.
+     *
+     * @return the number of indexed addresses
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return values.entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Indexes the values of an address, or removes them when the entry is null, and records
+     * the change while a rebuild is in progress.
+     */
+    private void apply(Long id, Entry entry) {
+        lock.writeLock().lock();
+        try {
+            values.apply(id, entry);
+            if (changedWhileRebuilding != null) {
+                changedWhileRebuilding.put(id, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /*
+     * The indexed values of every address and the radix trees over them, guarded by the
+     * lock of the enclosing index.
+     */
+    private static final class Values {
+
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final RadixTree streets = new RadixTree();
+        private final RadixTree cities = new RadixTree();
+
+        void apply(Long id, Entry entry) {
+            Entry previous = entry == null ? entries.remove(id) : entries.put(id, entry);
+            if (previous != null) {
+                streets.remove(normalize(previous.street()), previous.street());
+                cities.remove(normalize(previous.city()), previous.city());
+            }
+            if (entry != null) {
+                streets.add(normalize(entry.street()), entry.street());
+                cities.add(normalize(entry.city()), entry.city());
+            }
+        }
+
+        RadixTree tree(Field field) {
+            return field == Field.STREET ? streets : cities;
+        }
+    }
+
+    /*
+     * Radix tree counting how many addresses hold each spelling of a key. Edges are labelled
+     * with strings, and a node with a single child is only kept when a key ends at it.
+     * Children are sorted, so a depth-first walk yields keys in alphabetical order.
+     * Not thread-safe; guarded by the lock of the enclosing index.
+     */
+    private static final class RadixTree {
+
+        private final Node root = new Node("");
+
+        void add(String key, String value) {
+            Node node = root;
+            String rest = key;
+            while (!rest.isEmpty()) {
+                Node child = node.children.get(rest.charAt(0));
+                if (child == null) {
+                    child = new Node(rest);
+                    node.children.put(rest.charAt(0), child);
+                    node = child;
+                    break;
+                }
+                int common = commonPrefixLength(child.label, rest);
+                if (common < child.label.length()) {
+                    Node split = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    split.children.put(child.label.charAt(0), child);
+                    node.children.put(split.label.charAt(0), split);
+                    child = split;
+                }
+                node = child;
+                rest = rest.substring(common);
+            }
+            node.spellings.merge(value, 1, Integer::sum);
+        }
+
+        void remove(String key, String value) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            String rest = key;
+            while (!rest.isEmpty()) {
+                Node child = node.children.get(rest.charAt(0));
+                if (child == null || !rest.startsWith(child.label)) {
+                    return;
+                }
+                path.add(node);
+                node = child;
+                rest = rest.substring(child.label.length());
+            }
+            if (!node.spellings.containsKey(value)) {
+                return;
+            }
+            node.spellings.merge(value, -1, (count, decrement) -> count + decrement == 0 ? null : count + decrement);
+            if (!node.spellings.isEmpty() || node == root) {
+                return;
+            }
+            Node parent = path.getLast();
+            if (node.children.isEmpty()) {
+                parent.children.remove(node.label.charAt(0));
+                if (parent != root && parent.spellings.isEmpty() && parent.children.size() == 1) {
+                    mergeWithOnlyChild(parent);
+                }
+            } else if (node.children.size() == 1) {
+                mergeWithOnlyChild(node);
+            }
+        }
+
+        List<String> suggest(String prefix, int limit) {
+            Node node = root;
+            String rest = prefix;
+            while (!rest.isEmpty()) {
+                Node child = node.children.get(rest.charAt(0));
+                if (child == null) {
+                    return List.of();
+                }
+                if (rest.length() <= child.label.length()) {
+                    if (!child.label.startsWith(rest)) {
+                        return List.of();
+                    }
+                    node = child;
+                    break;
+                }
+                if (!rest.startsWith(child.label)) {
+                    return List.of();
+                }
+                node = child;
+                rest = rest.substring(child.label.length());
+            }
+            List<String> values = new ArrayList<>(Math.min(limit, 16));
+            collect(node, values, limit);
+            return values;
+        }
+
+        private static void collect(Node node, List<String> values, int limit) {
+            if (values.size() >= limit) {
+                return;
+            }
+            if (!node.spellings.isEmpty()) {
+                values.add(node.spellings.firstKey());
+            }
+            for (Node child : node.children.values()) {
+                collect(child, values, limit);
+                if (values.size() >= limit) {
+                    return;
+                }
+            }
+        }
+
+        /*
+         * Folds the single child of a node that no key ends at into the node itself.
+         */
+        private static void mergeWithOnlyChild(Node node) {
+            Node child = node.children.firstEntry().getValue();
+            node.label = node.label + child.label;
+            node.children.clear();
+            node.children.putAll(child.children);
+            node.spellings.clear();
+            node.spellings.putAll(child.spellings);
+        }
+
+        private static int commonPrefixLength(String a, String b) {
+            int length = Math.min(a.length(), b.length());
+            int i = 0;
+            while (i < length && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+
+        private static final class Node {
+            private String label;
+            private final TreeMap<Character, Node> children = new TreeMap<>();
+            private final TreeMap<String, Integer> spellings = new TreeMap<>();
+
+            private Node(String label) {
+                this.label = label;
+            }
+        }
+    }
+}
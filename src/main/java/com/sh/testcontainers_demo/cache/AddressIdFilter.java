@@ -0,0 +1,132 @@
+package com.sh.testcontainers_demo.cache;
+
+import com.sh.testcontainers_demo.config.AddressProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over the IDs of all existing addresses.
+ * <p>
+ * A negative answer from {@link #mightContain(Long)} is definite, so lookups of IDs that
+ * were never created can be answered without opening a transaction or running a query.
+ * A positive answer may be wrong with roughly the configured false positive rate; such
+ * lookups simply fall through to the database. IDs are never removed, so deleted
+ * addresses also fall through, which only makes the filter less selective.
+ * </p>
+ * <p>
+ * Until {@link #load(Stream)} has run at startup the filter does not know the existing
+ * IDs and lets every lookup through. IDs are added as soon as they are assigned, before
+ * the creating transaction commits, so a new address is never reported as missing.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@Component
+public class AddressIdFilter {
+
+    private final boolean enabled;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLongArray words;
+    private final Counter rejected;
+    private volatile boolean loaded;
+
+    /**
+     * Creates an empty filter sized from the {@code app.address.id-filter} settings.
+     *
+     * @param addressProperties the address settings
+     * @param meterRegistry     the registry to publish the rejected lookup counter to
+     */
+    public AddressIdFilter(AddressProperties addressProperties, MeterRegistry meterRegistry) {
+        AddressProperties.IdFilter settings = addressProperties.getIdFilter();
+        this.enabled = settings.isEnabled();
+        double bitsPerId = -Math.log(settings.getFalsePositiveRate()) / (Math.log(2) * Math.log(2));
+        long words = Math.max(1, (long) Math.ceil(settings.getExpectedIds() * bitsPerId / Long.SIZE));
+        this.bitCount = words * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round(bitsPerId * Math.log(2)));
+        this.words = new AtomicLongArray(enabled ? Math.toIntExact(words) : 0);
+        this.rejected = meterRegistry.counter("address.id.filter.rejected");
+    }
+
+    /**
+     * Returns whether an address with the given ID might exist.
+     * <p>
+     * Always {@code true} while the filter is disabled or not loaded yet.
+     * </p>
+     *
+     * @param id the ID of the address
+     * @return {@code false} only if no address with this ID was ever created
+     */
+    public boolean mightContain(Long id) {
+        if (!enabled || !loaded) {
+            return true;
+        }
+        long hash1 = mix(id);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                rejected.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records the ID of a newly created address.
+     *
+     * @param id the ID of the address
+     */
+    public void add(Long id) {
+        if (!enabled) {
+            return;
+        }
+        long hash1 = mix(id);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+            long mask = 1L << bit;
+            words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+        }
+    }
+
+    /**
+     * Adds the IDs of all existing addresses and starts answering lookups from the filter.
+     * <p>
+     * IDs added concurrently are kept, so addresses created while the existing IDs are
+     * being read are not lost.
+     * </p>
+     *
+     * @param ids the IDs of all existing addresses
+     * @return the number of IDs read
+     */
+    public long load(Stream<Long> ids) {
+        if (!enabled) {
+            return 0;
+        }
+        long count = ids.mapToLong(id -> {
+            add(id);
+            return 1;
+        }).sum();
+        loaded = true;
+        log.info("Loaded {} address IDs into a Bloom filter of {} bits with {} hash functions", count, bitCount, hashCount);
+        return count;
+    }
+
+    /*
+     * SplitMix64 finalizer; spreads sequential IDs evenly over the bit set.
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,135 @@
+package com.sh.testcontainers_demo.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sh.testcontainers_demo.config.ResponseCacheProperties;
+import com.sh.testcontainers_demo.dto.AddressResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * Cache of serialized {@link AddressResponse} JSON, keyed by address ID.
+ * <p>
+ * Each entry holds the UTF-8 JSON of one address in a direct {@link ByteBuffer}, so
+ * cached responses live off the Java heap and can be written to the client without
+ * mapping or serializing again. The cache is bounded by the total number of bytes and
+ * uses Caffeine's W-TinyLFU eviction. When disabled, every call serializes afresh.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@Component
+public class AddressResponseCache {
+
+    private final ObjectWriter writer;
+    private final Cache<Long, Entry> cache;
+
+    /**
+     * A serialized address response together with the version it was serialized from.
+     *
+     * @param json    the UTF-8 JSON of the address
+     * @param version the version of the address
+     */
+    public record Entry(ByteBuffer json, Long version) {
+    }
+
+    /**
+     * Creates the cache from the response cache properties.
+     *
+     * @param objectMapper  the object mapper used to serialize responses
+     * @param properties    the response cache properties
+     * @param meterRegistry the registry to publish the cache metrics to
+     */
+    public AddressResponseCache(ObjectMapper objectMapper, ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.writer = objectMapper.writerFor(AddressResponse.class);
+        if (properties.isEnabled()) {
+            log.info("Caching address responses up to {} for {}", properties.getMaximumSize(), properties.getTimeToLive());
+            this.cache = Caffeine.newBuilder()
+                    .maximumWeight(properties.getMaximumSize().toBytes())
+                    .<Long, Entry>weigher((id, entry) -> entry.json().capacity())
+                    .expireAfterWrite(properties.getTimeToLive())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "address.response");
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Returns whether responses are cached, in which case concurrent misses for the same ID
+     * share one load.
+     *
+     * @return {@code true} if the cache is enabled
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Returns the serialized JSON of an address, loading and caching it on a miss.
+     * <p>
+     * The load runs atomically for its key, so an invalidation of an address that is
+     * still being loaded waits for the load and then removes its result.
+     * </p>
+     *
+     * @param id     the ID of the address
+     * @param loader the function loading the address response on a cache miss
+     * @return the entry with a read-only buffer holding the JSON of the address
+     */
+    public Entry get(Long id, Function<Long, AddressResponse> loader) {
+        if (cache == null) {
+            return serialize(loader.apply(id), false);
+        }
+        Entry entry = cache.get(id, key -> serialize(loader.apply(key), true));
+        return new Entry(entry.json().asReadOnlyBuffer(), entry.version());
+    }
+
+    /**
+     * Evicts the cached JSON of an address.
+     * <p>
+     * Inside a transaction the entry is evicted again after commit, so a read that
+     * raced with the write cannot leave the old state cached.
+     * </p>
+     *
+     * @param id the ID of the address
+     */
+    public void invalidate(Long id) {
+        if (cache == null) {
+            return;
+        }
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    private Entry serialize(AddressResponse response, boolean direct) {
+        byte[] bytes;
+        try {
+            bytes = writer.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize address " + response.id(), e);
+        }
+        ByteBuffer json = direct
+                ? ByteBuffer.allocateDirect(bytes.length).put(bytes).flip()
+                : ByteBuffer.wrap(bytes);
+        return new Entry(json, response.version());
+    }
+}
@@ -0,0 +1,207 @@
+package com.sh.testcontainers_demo.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the address endpoints.
+ * <p>
+ * Bound from the {@code app.address} prefix in {@code application.properties}.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.address")
+public class AddressProperties {
+
+    @Valid
+    private Pagination pagination = new Pagination();
+    @Valid
+    private Bulk bulk = new Bulk();
+    @Valid
+    private Retry retry = new Retry();
+    @Valid
+    private Autocomplete autocomplete = new Autocomplete();
+    @Valid
+    private Lookup lookup = new Lookup();
+    @Valid
+    private Coalescing coalescing = new Coalescing();
+    @Valid
+    private IdFilter idFilter = new IdFilter();
+    @Valid
+    private Changes changes = new Changes();
+
+    /**
+     * Settings for cursor-based pagination of GET /addresses.
+     */
+    @Getter
+    @Setter
+    public static class Pagination implements PageSizeLimits {
+
+        /**
+         * Page size used when the client does not send a limit.
+         */
+        @Min(1)
+        private int defaultLimit = 50;
+
+        /**
+         * Upper bound for the page size; larger limits are clamped to this value.
+         */
+        @Min(1)
+        private int maxLimit = 500;
+
+        /**
+         * Whether clients may request the full, unbounded address list with {@code unpaged=true}.
+         */
+        private boolean unpagedEnabled = false;
+    }
+
+    /**
+     * Settings for bulk creation through POST /addresses/bulk.
+     */
+    @Getter
+    @Setter
+    public static class Bulk {
+
+        /**
+         * Number of addresses flushed to the database and cleared from the persistence context at a time.
+         */
+        @Min(1)
+        private int chunkSize = 500;
+    }
+
+    /**
+     * Settings for retrying address writes that fail on an optimistic lock conflict.
+     */
+    @Getter
+    @Setter
+    public static class Retry {
+
+        /**
+         * Maximum number of attempts, including the first one.
+         */
+        @Min(1)
+        private int maxAttempts = 3;
+
+        /**
+         * Delay before the first retry; each further retry waits one more multiple of it.
+         */
+        @NotNull
+        private Duration backoff = Duration.ofMillis(50);
+    }
+
+    /**
+     * Settings for GET /addresses/autocomplete.
+     */
+    @Getter
+    @Setter
+    public static class Autocomplete {
+
+        /**
+         * Number of suggestions returned when the client does not send a limit.
+         */
+        @Min(1)
+        private int defaultLimit = 10;
+
+        /**
+         * Upper bound for the number of suggestions; larger limits are clamped to this value.
+         */
+        @Min(1)
+        private int maxLimit = 50;
+    }
+
+    /**
+     * Settings for looking up many addresses by ID at once.
+     */
+    @Getter
+    @Setter
+    public static class Lookup {
+
+        /**
+         * Maximum number of IDs accepted in one request.
+         */
+        @Min(1)
+        private int maxIds = 1000;
+
+        /**
+         * Number of IDs bound to a single IN query; larger lookups are split into several queries.
+         */
+        @Min(1)
+        private int chunkSize = 500;
+    }
+
+    /**
+     * Settings for coalescing concurrent reads of the same address.
+     */
+    @Getter
+    @Setter
+    public static class Coalescing {
+
+        /**
+         * Whether concurrent GET /addresses/{id} calls for the same ID share one database read
+         * where the response cache does not already serialize them.
+         */
+        private boolean enabled = false;
+    }
+
+    /**
+     * Settings for the Bloom filter that answers lookups of unknown address IDs without a query.
+     * <p>
+     * The filter only learns about addresses created through this instance, so it is off by
+     * default and must stay disabled when other instances or processes insert into the same table.
+     * </p>
+     */
+    @Getter
+    @Setter
+    public static class IdFilter {
+
+        /**
+         * Whether GET /addresses/{id} answers IDs missing from the filter with 404 right away.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of address IDs the filter is sized for; beyond it the false positive rate grows.
+         */
+        @Min(1)
+        private int expectedIds = 1_000_000;
+
+        /**
+         * Share of unknown IDs the filter lets through to the database at the expected size.
+         */
+        @DecimalMin(value = "0", inclusive = false)
+        @DecimalMax(value = "1", inclusive = false)
+        private double falsePositiveRate = 0.01;
+    }
+
+    /**
+     * Settings for the address change feed at GET /addresses/changes.
+     */
+    @Getter
+    @Setter
+    public static class Changes {
+
+        /**
+         * How long a change must be in the past before the feed returns it.
+         * <p>
+         * Change times are taken when a transaction writes, not when it commits, so a
+         * transaction still running could otherwise commit a change behind a cursor the
+         * client already holds. Must exceed the longest address write transaction.
+         * </p>
+         */
+        @NotNull
+        private Duration settleDelay = Duration.ofSeconds(5);
+    }
+}
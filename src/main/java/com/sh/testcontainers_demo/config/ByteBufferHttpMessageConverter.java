@@ -0,0 +1,69 @@
+package com.sh.testcontainers_demo.config;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes pre-serialized JSON held in a {@link ByteBuffer} straight to the response.
+ * <p>
+ * The buffer may be direct; its content is copied to the response through a small,
+ * per-thread chunk so that no per-request copy of the body is allocated.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+public class ByteBufferHttpMessageConverter extends AbstractHttpMessageConverter<ByteBuffer> {
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[CHUNK_SIZE]);
+
+    /**
+     * Creates a converter writing {@code application/json}.
+     */
+    public ByteBufferHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ByteBuffer.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ByteBuffer readInternal(Class<? extends ByteBuffer> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading ByteBuffer bodies is not supported", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(ByteBuffer buffer, MediaType contentType) {
+        return (long) buffer.remaining();
+    }
+
+    @Override
+    protected void writeInternal(ByteBuffer buffer, HttpOutputMessage outputMessage) throws IOException {
+        ByteBuffer source = buffer.duplicate();
+        OutputStream body = outputMessage.getBody();
+        if (source.hasArray()) {
+            body.write(source.array(), source.arrayOffset() + source.position(), source.remaining());
+            return;
+        }
+        byte[] chunk = CHUNK.get();
+        while (source.hasRemaining()) {
+            int length = Math.min(chunk.length, source.remaining());
+            source.get(chunk, 0, length);
+            body.write(chunk, 0, length);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.sh.testcontainers_demo.config;
+
+/**
+ * Page size settings of a cursor-paginated endpoint.
+ * <p>
+ * Implemented by the pagination settings of each resource, so that their endpoints
+ * resolve the requested page size the same way.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+public interface PageSizeLimits {
+
+    /**
+     * Returns the page size used when the client does not send a limit.
+     *
+     * @return the default page size
+     */
+    int getDefaultLimit();
+
+    /**
+     * Returns the upper bound for the page size; larger limits are clamped to this value.
+     *
+     * @return the maximum page size
+     */
+    int getMaxLimit();
+}
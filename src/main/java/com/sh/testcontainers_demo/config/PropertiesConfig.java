@@ -0,0 +1,14 @@
+package com.sh.testcontainers_demo.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the application's configuration properties classes.
+ *
+ * @author Shailesh Halor
+ */
+@Configuration
+@EnableConfigurationProperties({AddressProperties.class, UserProperties.class, SecondLevelCacheProperties.class, ResponseCacheProperties.class})
+public class PropertiesConfig {
+}
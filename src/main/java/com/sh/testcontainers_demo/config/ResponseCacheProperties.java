@@ -0,0 +1,42 @@
+package com.sh.testcontainers_demo.config;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the cache of serialized address responses.
+ * <p>
+ * Bound from the {@code app.cache.response} prefix in {@code application.properties}.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.cache.response")
+public class ResponseCacheProperties {
+
+    /**
+     * Whether serialized address responses are cached.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum total size of the cached JSON, held in direct (off-heap) memory.
+     */
+    @NotNull
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Time after which a cached response is evicted once written.
+     */
+    @NotNull
+    private Duration timeToLive = Duration.ofMinutes(10);
+}
@@ -0,0 +1,139 @@
+package com.sh.testcontainers_demo.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Configuration of the Hibernate second-level cache, backed by Caffeine through JCache.
+ * <p>
+ * The cache regions used by the entities are created up front with the size and
+ * time-to-live from {@link SecondLevelCacheProperties}. When statistics are enabled,
+ * the hit and miss ratio of every region is published as a gauge.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /**
+     * Cache region of the Address entity.
+     */
+    public static final String ADDRESS_REGION = "address";
+
+    /**
+     * Cache region of the User entity.
+     */
+    public static final String USER_REGION = "user";
+
+    /**
+     * Cache region of the User address collection.
+     */
+    public static final String USER_ADDRESS_REGION = "user.address";
+
+    private static final List<String> REGIONS = List.of(ADDRESS_REGION, USER_REGION, USER_ADDRESS_REGION);
+
+    /**
+     * Creates the JCache manager holding the second-level cache regions.
+     * <p>
+     * Every application context gets its own manager, so contexts never share cached entities.
+     * </p>
+     *
+     * @param properties the second-level cache properties
+     * @return the cache manager
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.cache.second-level", name = "enabled", havingValue = "true")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        log.info("Creating second-level cache regions {} with maximum size {} and time-to-live {}",
+                REGIONS, properties.getMaximumSize(), properties.getTimeToLive());
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("second-level-cache:" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(properties.getMaximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(properties.getTimeToLive().toNanos()));
+            configuration.setStatisticsEnabled(properties.isStatistics());
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Passes the second-level cache settings to Hibernate.
+     *
+     * @param properties   the second-level cache properties
+     * @param cacheManager the cache manager, available only when the cache is enabled
+     * @return the Hibernate properties customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties,
+                                                                    ObjectProvider<CacheManager> cacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, properties.isEnabled());
+            if (properties.isStatistics()) {
+                hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            }
+            if (properties.isEnabled()) {
+                hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager.getObject());
+                hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+
+    /**
+     * Publishes the hit and miss ratio of every second-level cache region.
+     *
+     * @param entityManagerFactory the entity manager factory
+     * @return the meter binder registering the gauges
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.second-level", name = {"enabled", "statistics"}, havingValue = "true")
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> REGIONS.forEach(region -> {
+            gauge("hibernate.second.level.cache.hit.ratio", region, statistics,
+                    regionStatistics -> ratio(regionStatistics.getHitCount(), regionStatistics.getMissCount()))
+                    .register(registry);
+            gauge("hibernate.second.level.cache.miss.ratio", region, statistics,
+                    regionStatistics -> ratio(regionStatistics.getMissCount(), regionStatistics.getHitCount()))
+                    .register(registry);
+        });
+    }
+
+    private static Gauge.Builder<Statistics> gauge(String name, String region, Statistics statistics,
+                                                   ToDoubleFunction<CacheRegionStatistics> ratio) {
+        return Gauge.builder(name, statistics, stats -> ratio.applyAsDouble(stats.getDomainDataRegionStatistics(region)))
+                .tag("region", region);
+    }
+
+    private static double ratio(long count, long otherCount) {
+        long total = count + otherCount;
+        return total == 0 ? 0.0 : (double) count / total;
+    }
+}
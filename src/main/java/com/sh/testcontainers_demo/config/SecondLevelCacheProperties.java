@@ -0,0 +1,48 @@
+package com.sh.testcontainers_demo.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the Hibernate second-level cache.
+ * <p>
+ * Bound from the {@code app.cache.second-level} prefix in {@code application.properties}.
+ * The same size and time-to-live apply to every cache region.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.cache.second-level")
+public class SecondLevelCacheProperties {
+
+    /**
+     * Whether the second-level cache is enabled.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of entries kept in each cache region.
+     */
+    @Min(1)
+    private long maximumSize = 10_000;
+
+    /**
+     * Time after which an entry is evicted from its region once written.
+     */
+    @NotNull
+    private Duration timeToLive = Duration.ofMinutes(10);
+
+    /**
+     * Whether Hibernate statistics are collected and the cache hit and miss ratios published as metrics.
+     */
+    private boolean statistics = false;
+}
@@ -0,0 +1,63 @@
+package com.sh.testcontainers_demo.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for the user endpoints.
+ * <p>
+ * Bound from the {@code app.user} prefix in {@code application.properties}.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.user")
+public class UserProperties {
+
+    @Valid
+    private Pagination pagination = new Pagination();
+
+    @Valid
+    private Bulk bulk = new Bulk();
+
+    /**
+     * Settings for cursor-based pagination of GET /users and GET /users/{id}/addresses.
+     */
+    @Getter
+    @Setter
+    public static class Pagination implements PageSizeLimits {
+
+        /**
+         * Page size used when the client does not send a limit.
+         */
+        @Min(1)
+        private int defaultLimit = 20;
+
+        /**
+         * Upper bound for the page size; larger limits are clamped to this value.
+         */
+        @Min(1)
+        private int maxLimit = 200;
+    }
+
+    /**
+     * Settings for the bulk upsert of PUT /users/by-email.
+     */
+    @Getter
+    @Setter
+    public static class Bulk {
+
+        /**
+         * Number of users written by each upsert statement.
+         */
+        @Min(1)
+        private int chunkSize = 500;
+    }
+}
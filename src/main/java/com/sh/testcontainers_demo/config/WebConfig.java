@@ -0,0 +1,25 @@
+package com.sh.testcontainers_demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Spring MVC configuration.
+ * <p>
+ * Registers the {@link ByteBufferHttpMessageConverter} ahead of the Jackson converter,
+ * so that pre-serialized responses are written as they are.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.addFirst(new ByteBufferHttpMessageConverter());
+    }
+}
@@ -1,22 +1,74 @@
 package com.sh.testcontainers_demo.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sh.testcontainers_demo.cache.AddressAutocompleteIndex;
+import com.sh.testcontainers_demo.cache.AddressIdFilter;
+import com.sh.testcontainers_demo.cache.AddressResponseCache;
+import com.sh.testcontainers_demo.config.AddressProperties;
+import com.sh.testcontainers_demo.dto.AddressChangePage;
+import com.sh.testcontainers_demo.dto.AddressLookupResponse;
+import com.sh.testcontainers_demo.dto.AddressPatchRequest;
 import com.sh.testcontainers_demo.dto.AddressRequest;
 import com.sh.testcontainers_demo.dto.AddressResponse;
+import com.sh.testcontainers_demo.dto.AddressSearchCriteria;
+import com.sh.testcontainers_demo.dto.BulkAddressResponse;
+import com.sh.testcontainers_demo.dto.ChangeCursor;
+import com.sh.testcontainers_demo.dto.CursorPage;
+import com.sh.testcontainers_demo.exception.AddressNotFoundException;
+import com.sh.testcontainers_demo.exception.BadRequestException;
+import com.sh.testcontainers_demo.exception.PreconditionFailedException;
+import com.sh.testcontainers_demo.service.AddressLoadCoalescer;
 import com.sh.testcontainers_demo.service.AddressService;
+import com.sh.testcontainers_demo.service.OptimisticLockRetry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
 @RequestMapping("/addresses")
 @RequiredArgsConstructor
 public class AddressController {
+    /**
+     * Media type for JSON Merge Patch documents (RFC 7396).
+     */
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    private static final Set<String> PATCH_FIELDS = Arrays.stream(AddressPatchRequest.class.getRecordComponents())
+            .map(RecordComponent::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
     private final AddressService addressService;
+    private final AddressProperties addressProperties;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final AddressResponseCache addressResponseCache;
+    private final AddressAutocompleteIndex addressAutocompleteIndex;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final AddressLoadCoalescer addressLoadCoalescer;
+    private final AddressIdFilter addressIdFilter;
 
     /**
      * Creates a new address.
@@ -31,56 +83,484 @@ public class AddressController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Creates many addresses at once using batched inserts.
+     *
+     * @param requests the list of address request DTOs
+     * @return ResponseEntity with the created IDs, chunk timings and HTTP status 201
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkAddressResponse> createAddresses(@RequestBody List<AddressRequest> requests) {
+        log.info("Received request to create {} addresses", requests.size());
+        BulkAddressResponse response = addressService.createAddresses(requests);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
     /**
      * Retrieves an address by its ID.
+     * <p>
+     * The response carries the address version as its ETag. When the {@code If-None-Match}
+     * header matches the current version, 304 Not Modified is returned after a version-only
+     * query. Otherwise the JSON of the address is served from the {@link AddressResponseCache}
+     * when present, without mapping or serializing it again. Concurrent misses for the same ID
+     * already share one load in the cache; the {@link AddressLoadCoalescer} shares the version
+     * lookups, and the loads while the response cache is disabled.
+     * IDs the {@link AddressIdFilter} knows not to exist are answered with 404 before any
+     * cache lookup, transaction or query.
+     * </p>
      *
-     * @param id the ID of the address
-     * @return ResponseEntity with the address and HTTP status 200
+     * @param id          the ID of the address
+     * @param ifNoneMatch the ETags held by the client, if any
+     * @return ResponseEntity with the address JSON and HTTP status 200, or HTTP status 304
      */
-    @GetMapping("/{id}")
-    public ResponseEntity<AddressResponse> getAddressById(@PathVariable Long id) {
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ByteBuffer> getAddressById(@PathVariable Long id,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Received request to get address with ID: {}", id);
-        AddressResponse response = addressService.getAddressById(id);
-        return ResponseEntity.ok(response);
+        requireKnownId(id);
+        if (ifNoneMatch != null) {
+            String eTag = eTag(addressLoadCoalescer.getAddressVersion(id));
+            if (eTagMatches(ifNoneMatch, eTag)) {
+                log.debug("Address with ID: {} not modified", id);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+        AddressResponseCache.Entry response = addressResponseCache.isEnabled()
+                ? addressResponseCache.get(id, addressService::getAddressById)
+                : addressResponseCache.get(id, addressLoadCoalescer::getAddressById);
+        return ResponseEntity.ok()
+                .eTag(eTag(response.version()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.json());
+    }
+
+    /**
+     * Retrieves only the requested fields of an address, as in {@code GET /addresses/1?fields=id,zipCode}.
+     * <p>
+     * Only the requested columns are selected. Sparse responses are neither cached nor
+     * given an ETag; concurrent requests for the same fields can share one read through the
+     * {@link AddressLoadCoalescer}. Unknown IDs are rejected by the {@link AddressIdFilter} as above.
+     * </p>
+     *
+     * @param id     the ID of the address
+     * @param fields the names of the address fields to return
+     * @return ResponseEntity with the requested fields of the address and HTTP status 200
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getAddressFieldsById(@PathVariable Long id,
+                                                                    @RequestParam List<String> fields) {
+        log.info("Received request to get fields {} of address with ID: {}", fields, id);
+        requireKnownId(id);
+        return ResponseEntity.ok(addressLoadCoalescer.getAddressFields(id, sparseFields(fields)));
     }
 
     /**
      * Updates an existing address.
+     * <p>
+     * With an {@code If-Match} header the update only succeeds if the address still has
+     * that version, and 412 Precondition Failed is returned otherwise. Without it, the
+     * update is retried on a concurrent modification.
+     * </p>
      *
      * @param id      the ID of the address to update
+     * @param ifMatch the ETag the update is based on, if any
      * @param request the address request DTO with updated data
-     * @return ResponseEntity with the updated address and HTTP status 200
+     * @return ResponseEntity with the updated address, its ETag and HTTP status 200
      */
     @PutMapping("/{id}")
-    public ResponseEntity<AddressResponse> updateAddress(@PathVariable Long id, @RequestBody AddressRequest request) {
+    public ResponseEntity<AddressResponse> updateAddress(@PathVariable Long id,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                         @RequestBody AddressRequest request) {
         log.info("Received request to update address with ID: {}", id);
-        AddressResponse response = addressService.updateAddress(id, request);
+        AddressResponse response = ifMatch == null
+                ? optimisticLockRetry.execute("update", () -> addressService.updateAddress(id, request))
+                : addressService.updateAddress(id, request, expectedVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(eTag(response.version()))
+                .body(response);
+    }
+
+    /**
+     * Partially updates an existing address using JSON Merge Patch.
+     * <p>
+     * Only the fields present in the request body are changed; an explicit {@code null}
+     * is rejected because every address field is mandatory, and so is a member that is not
+     * an address field, which would otherwise be ignored without changing anything.
+     * </p>
+     *
+     * @param id    the ID of the address to patch
+     * @param patch the merge patch document with the fields to change
+     * @return ResponseEntity with the updated address and HTTP status 200
+     */
+    @PatchMapping(value = "/{id}", consumes = MERGE_PATCH_JSON_VALUE)
+    public ResponseEntity<AddressResponse> patchAddress(@PathVariable Long id, @RequestBody JsonNode patch) {
+        log.info("Received request to patch address with ID: {}", id);
+        AddressResponse response = addressService.patchAddress(id, toPatchRequest(patch));
         return ResponseEntity.ok(response);
     }
 
+    /*
+     * Converts a merge patch document into a validated AddressPatchRequest.
+     * Unknown members and explicit nulls are checked on the JSON tree: the object mapper
+     * ignores unknown properties, and nulls cannot be told apart from absent members once
+     * the document is bound to the record.
+     */
+    private AddressPatchRequest toPatchRequest(JsonNode patch) {
+        if (!patch.isObject()) {
+            throw new BadRequestException("Merge patch must be a JSON object");
+        }
+        for (Map.Entry<String, JsonNode> field : patch.properties()) {
+            if (!PATCH_FIELDS.contains(field.getKey())) {
+                throw new BadRequestException("Unknown field: " + field.getKey());
+            }
+            if (field.getValue().isNull()) {
+                throw new BadRequestException("Field cannot be removed: " + field.getKey());
+            }
+        }
+        AddressPatchRequest request;
+        try {
+            request = objectMapper.treeToValue(patch, AddressPatchRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Invalid merge patch: " + e.getOriginalMessage(), e);
+        }
+        Set<ConstraintViolation<AddressPatchRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return request;
+    }
+
     /**
      * Deletes an address by its ID.
+     * <p>
+     * With an {@code If-Match} header the address is only deleted if it still has that
+     * version, and 412 Precondition Failed is returned otherwise.
+     * </p>
      *
-     * @param id the ID of the address to delete
+     * @param id      the ID of the address to delete
+     * @param ifMatch the ETag the delete is based on, if any
      * @return ResponseEntity with HTTP status 204 (No Content)
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteAddress(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteAddress(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Received request to delete address with ID: {}", id);
-        addressService.deleteAddress(id);
+        addressService.deleteAddress(id, ifMatch == null ? null : expectedVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     /**
-     * Retrieves all addresses.
+     * Retrieves the addresses with the given IDs, as in {@code GET /addresses?ids=1,2,3}.
+     *
+     * @param ids the IDs of the addresses
+     * @return ResponseEntity with the addresses found, the missing IDs and HTTP status 200
+     * @see #lookupAddresses(List)
+     */
+    @GetMapping(params = {"ids", "!fields"})
+    public ResponseEntity<AddressLookupResponse> getAddressesByIds(@RequestParam List<Long> ids) {
+        return lookupAddresses(ids);
+    }
+
+    /**
+     * Rejects sparse fieldsets on the ID lookup, as in {@code GET /addresses?ids=1,2&fields=id},
+     * instead of silently returning every field.
+     *
+     * @param ids    the IDs of the addresses
+     * @param fields the names of the address fields requested
+     * @return never returns normally
+     * @throws BadRequestException always
+     */
+    @GetMapping(params = {"ids", "fields"})
+    public ResponseEntity<AddressLookupResponse> getAddressFieldsByIds(@RequestParam List<Long> ids,
+                                                                      @RequestParam List<String> fields) {
+        throw new BadRequestException("The fields parameter is not supported together with ids");
+    }
+
+    /**
+     * Retrieves the addresses with the given IDs in one request.
+     * <p>
+     * Addresses are returned in the order their IDs were requested; IDs without an address
+     * are listed as missing rather than failing the request. Use this endpoint for ID lists
+     * too long for a query string.
+     * </p>
      *
-     * @return ResponseEntity with the list of addresses and HTTP status 200
+     * @param ids the IDs of the addresses, at most {@code app.address.lookup.max-ids}
+     * @return ResponseEntity with the addresses found, the missing IDs and HTTP status 200
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<AddressLookupResponse> lookupAddresses(@RequestBody List<Long> ids) {
+        int maxIds = addressProperties.getLookup().getMaxIds();
+        if (ids.isEmpty() || ids.size() > maxIds) {
+            throw new BadRequestException("Between 1 and " + maxIds + " IDs must be requested");
+        }
+        log.info("Received request to look up {} addresses", ids.size());
+        return ResponseEntity.ok(addressService.lookupAddresses(ids));
+    }
+
+    /**
+     * Retrieves addresses one page at a time using cursor (keyset) pagination on the ID.
+     * <p>
+     * The full, unbounded list is only returned when {@code unpaged=true} is sent and
+     * {@code app.address.pagination.unpaged-enabled} is switched on.
+     * </p>
+     *
+     * @param after   the cursor returned by the previous page, or absent for the first page
+     * @param limit   the maximum number of addresses to return, clamped to the configured maximum
+     * @param unpaged whether to return every address in a single response
+     * @return ResponseEntity with the page of addresses and HTTP status 200
      */
     @GetMapping
-    public ResponseEntity<List<AddressResponse>> getAllAddresses() {
-        log.info("Received request to get all addresses");
-        List<AddressResponse> responses = addressService.getAllAddresses();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<CursorPage<AddressResponse>> getAllAddresses(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean unpaged) {
+        AddressProperties.Pagination pagination = addressProperties.getPagination();
+        if (unpaged) {
+            if (!pagination.isUnpagedEnabled()) {
+                throw new BadRequestException("Unpaged retrieval of addresses is disabled");
+            }
+            log.info("Received request to get all addresses unpaged");
+            List<AddressResponse> responses = addressService.getAllAddresses();
+            return ResponseEntity.ok(new CursorPage<>(responses, null));
+        }
+        int pageSize = PageSizes.resolve(limit, addressProperties.getPagination());
+        log.info("Received request to get addresses after ID: {} with limit: {}", after, pageSize);
+        return ResponseEntity.ok(addressService.getAddressPage(after, pageSize));
+    }
+
+    /**
+     * Retrieves a page of addresses with only the requested fields, as in {@code GET /addresses?fields=id,zipCode}.
+     *
+     * @param after  the cursor returned by the previous page, or absent for the first page
+     * @param limit  the maximum number of addresses to return, clamped to the configured maximum
+     * @param fields the names of the address fields to return
+     * @return ResponseEntity with the page of address field maps and HTTP status 200
+     */
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<CursorPage<Map<String, Object>>> getAllAddressFields(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam List<String> fields) {
+        return searchAddressFields(new AddressSearchCriteria(null, null, null, null), after, limit, fields);
+    }
+
+    /**
+     * Retrieves the addresses created, updated or deleted since a point in time, as in
+     * {@code GET /addresses/changes?since=2024-01-01T00:00:00Z}.
+     * <p>
+     * The first request names the time to start from; every response carries a cursor to
+     * send instead on the next request, also once the client has caught up, so that
+     * repeated polls return only the changes made in between. Deleted addresses are
+     * reported with their ID only.
+     * </p>
+     *
+     * @param since  the time to start from, used when no cursor is sent
+     * @param cursor the cursor returned by the previous response
+     * @param limit  the maximum number of changes to return, clamped to the configured maximum
+     * @return ResponseEntity with the page of changes and HTTP status 200
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<AddressChangePage> getAddressChanges(
+            @RequestParam(required = false) Instant since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = PageSizes.resolve(limit, addressProperties.getPagination());
+        ChangeCursor after = changeCursor(since, cursor);
+        log.info("Received request to get address changes after: {} with limit: {}", after, pageSize);
+        return ResponseEntity.ok(addressService.getAddressChanges(after, pageSize));
+    }
+
+    /**
+     * Searches addresses by city, state, country and zip code using cursor (keyset) pagination.
+     * <p>
+     * Each filter is optional and matched exactly; the filters sent are combined with AND.
+     * </p>
+     *
+     * @param criteria the search filters, bound from the request parameters
+     * @param after    the cursor returned by the previous page, or absent for the first page
+     * @param limit    the maximum number of addresses to return, clamped to the configured maximum
+     * @return ResponseEntity with the page of matching addresses and HTTP status 200
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<AddressResponse>> searchAddresses(
+            AddressSearchCriteria criteria,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = PageSizes.resolve(limit, addressProperties.getPagination());
+        log.info("Received request to search addresses matching: {} after ID: {} with limit: {}", criteria, after, pageSize);
+        return ResponseEntity.ok(addressService.searchAddresses(criteria, after, pageSize));
     }
-}
 
+    /**
+     * Searches addresses like {@link #searchAddresses(AddressSearchCriteria, Long, Integer)}, returning only the requested fields.
+     *
+     * @param criteria the search filters, bound from the request parameters
+     * @param after    the cursor returned by the previous page, or absent for the first page
+     * @param limit    the maximum number of addresses to return, clamped to the configured maximum
+     * @param fields   the names of the address fields to return
+     * @return ResponseEntity with the page of matching address field maps and HTTP status 200
+     */
+    @GetMapping(value = "/search", params = "fields")
+    public ResponseEntity<CursorPage<Map<String, Object>>> searchAddressFields(
+            AddressSearchCriteria criteria,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam List<String> fields) {
+        int pageSize = PageSizes.resolve(limit, addressProperties.getPagination());
+        List<String> sparseFields = sparseFields(fields);
+        log.info("Received request to search fields {} of addresses matching: {} after ID: {} with limit: {}",
+                sparseFields, criteria, after, pageSize);
+        return ResponseEntity.ok(addressService.searchAddressFields(criteria, after, pageSize, sparseFields));
+    }
+
+    /**
+     * Suggests street or city values starting with the given prefix.
+     * <p>
+     * Served from the in-memory {@link AddressAutocompleteIndex} without querying the database.
+     * Matching ignores case and suggestions are returned in alphabetical order.
+     * </p>
+     *
+     * @param field  the field to complete, {@code street} or {@code city}
+     * @param prefix the prefix typed so far
+     * @param limit  the maximum number of suggestions, clamped to the configured maximum
+     * @return ResponseEntity with the distinct matching values and HTTP status 200
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<String>> autocomplete(@RequestParam String field,
+                                                     @RequestParam String prefix,
+                                                     @RequestParam(required = false) Integer limit) {
+        AddressAutocompleteIndex.Field indexField = AddressAutocompleteIndex.Field.of(field)
+                .orElseThrow(() -> new BadRequestException("Autocomplete is not supported for field: " + field));
+        if (prefix.isBlank()) {
+            throw new BadRequestException("Prefix must not be blank");
+        }
+        AddressProperties.Autocomplete autocomplete = addressProperties.getAutocomplete();
+        int suggestions = limit == null ? autocomplete.getDefaultLimit() : limit;
+        if (suggestions < 1) {
+            throw new BadRequestException("Limit must be greater than zero");
+        }
+        suggestions = Math.min(suggestions, autocomplete.getMaxLimit());
+        log.debug("Received request to autocomplete {} with prefix: {}", indexField, prefix);
+        return ResponseEntity.ok(addressAutocompleteIndex.suggest(indexField, prefix, suggestions));
+    }
+
+    /**
+     * Exports all addresses as newline-delimited JSON.
+     * <p>
+     * Each address is written to the response while the database cursor is still being read,
+     * so the first bytes are sent before the query has finished and the response is
+     * never held in memory as a whole.
+     * </p>
+     *
+     * @return ResponseEntity with the streaming NDJSON body and HTTP status 200
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAddresses() {
+        log.info("Received request to export all addresses");
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writerFor(AddressResponse.class)
+                    .withRootValueSeparator("\n")
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .writeValues(outputStream)) {
+                addressService.exportAddresses(response -> {
+                    try {
+                        writer.write(response);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /*
+     * Validates a sparse fieldset, dropping blanks and duplicates and rejecting unknown fields.
+     */
+    private static List<String> sparseFields(List<String> fields) {
+        List<String> sparseFields = fields.stream()
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .toList();
+        if (sparseFields.isEmpty()) {
+            throw new BadRequestException("At least one field must be requested, from: " + AddressResponse.FIELDS);
+        }
+        List<String> unknown = sparseFields.stream().filter(field -> !AddressResponse.FIELDS.contains(field)).toList();
+        if (!unknown.isEmpty()) {
+            throw new BadRequestException("Unknown fields " + unknown + ", expected any of: " + AddressResponse.FIELDS);
+        }
+        return sparseFields;
+    }
+
+    /*
+     * Answers IDs that were never created with 404 straight from the Bloom filter.
+     */
+    private void requireKnownId(Long id) {
+        if (!addressIdFilter.mightContain(id)) {
+            throw AddressNotFoundException.forId(id);
+        }
+    }
+
+    /*
+     * Resolves the position to continue the change feed from; a cursor takes precedence over a start time.
+     */
+    private static ChangeCursor changeCursor(Instant since, String cursor) {
+        if (cursor != null) {
+            try {
+                return ChangeCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor: " + cursor, e);
+            }
+        }
+        if (since == null) {
+            throw new BadRequestException("Either since or cursor must be given");
+        }
+        return ChangeCursor.since(since);
+    }
+
+    /*
+     * Builds the strong ETag for an address version.
+     */
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /*
+     * Extracts the expected version from an If-Match header. A wildcard only requires the
+     * address to exist; weak or malformed ETags can never match under strong comparison.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.valueOf(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through to the precondition failure
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current version: " + ifMatch);
+    }
+
+    /*
+     * Checks whether a list of ETags from a conditional header contains the given ETag,
+     * using weak comparison as required for If-None-Match.
+     */
+    private static boolean eTagMatches(String header, String eTag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(eTag) || value.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,12 +1,20 @@
 package com.sh.testcontainers_demo.controller;
 
 import com.sh.testcontainers_demo.exception.AddressNotFoundException;
+import com.sh.testcontainers_demo.exception.BadRequestException;
+import com.sh.testcontainers_demo.exception.PreconditionFailedException;
+import com.sh.testcontainers_demo.exception.UserNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Global exception handler for the application.
  * <p>
@@ -20,15 +28,100 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * Minimum time between two log lines about missing addresses.
+     */
+    static final Duration NOT_FOUND_LOG_INTERVAL = Duration.ofSeconds(1);
+
+    private final AtomicLong nextNotFoundLog = new AtomicLong(System.nanoTime());
+    private final AtomicLong suppressedNotFound = new AtomicLong();
+
     /**
      * Handles AddressNotFoundException and returns a 404 Not Found response.
+     * <p>
+     * Lookups of unknown IDs are cheap to send in bulk, so at most one of them is logged
+     * per {@link #NOT_FOUND_LOG_INTERVAL}, together with the number left out since the last one.
+     * </p>
      *
      * @param ex the AddressNotFoundException
      * @return ResponseEntity with error message and 404 status
      */
     @ExceptionHandler(AddressNotFoundException.class)
     public ResponseEntity<String> handleAddressNotFound(AddressNotFoundException ex) {
-        log.error("Address not found: {}", ex.getMessage());
+        long now = System.nanoTime();
+        long next = nextNotFoundLog.get();
+        if (now - next >= 0 && nextNotFoundLog.compareAndSet(next, now + NOT_FOUND_LOG_INTERVAL.toNanos())) {
+            log.warn("Address not found: {} ({} similar responses suppressed)", ex.getMessage(),
+                    suppressedNotFound.getAndSet(0));
+        } else {
+            suppressedNotFound.incrementAndGet();
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    /**
+     * Handles UserNotFoundException and returns a 404 Not Found response.
+     *
+     * @param ex the UserNotFoundException
+     * @return ResponseEntity with error message and 404 status
+     */
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<String> handleUserNotFound(UserNotFoundException ex) {
+        log.warn("User not found: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
+
+    /**
+     * Handles BadRequestException and returns a 400 Bad Request response.
+     *
+     * @param ex the BadRequestException
+     * @return ResponseEntity with error message and 400 status
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<String> handleBadRequest(BadRequestException ex) {
+        log.warn("Bad request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    /**
+     * Handles PreconditionFailedException and returns a 412 Precondition Failed response.
+     *
+     * @param ex the PreconditionFailedException
+     * @return ResponseEntity with error message and 412 status
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> handlePreconditionFailed(PreconditionFailedException ex) {
+        log.warn("Precondition failed: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    /**
+     * Handles OptimisticLockingFailureException and returns a 409 Conflict response.
+     * <p>
+     * Reached when a write still conflicts after the retry policy gave up.
+     * </p>
+     *
+     * @param ex the OptimisticLockingFailureException
+     * @return ResponseEntity with error message and 409 status
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        log.warn("Concurrent modification: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("The resource was modified concurrently, please retry");
+    }
+
+    /**
+     * Handles DataIntegrityViolationException and returns a 409 Conflict response.
+     * <p>
+     * Reached when a write violates a database constraint, such as a second user with the same email.
+     * </p>
+     *
+     * @param ex the DataIntegrityViolationException
+     * @return ResponseEntity with error message and 409 status
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        log.warn("Constraint violation: {}", ex.getMostSpecificCause().getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("The request conflicts with existing data");
+    }
 }
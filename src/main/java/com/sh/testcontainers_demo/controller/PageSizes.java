@@ -0,0 +1,32 @@
+package com.sh.testcontainers_demo.controller;
+
+import com.sh.testcontainers_demo.config.PageSizeLimits;
+import com.sh.testcontainers_demo.exception.BadRequestException;
+
+/**
+ * Resolves the page size requested from the cursor-paginated endpoints.
+ *
+ * @author Shailesh Halor
+ */
+final class PageSizes {
+
+    private PageSizes() {
+    }
+
+    /**
+     * Resolves the requested page size, rejecting non-positive limits and clamping
+     * large ones to the configured maximum.
+     *
+     * @param limit  the limit sent by the client, or {@code null} for the default
+     * @param limits the page size settings of the endpoint
+     * @return the page size to read
+     * @throws BadRequestException if the limit is not positive
+     */
+    static int resolve(Integer limit, PageSizeLimits limits) {
+        int pageSize = limit == null ? limits.getDefaultLimit() : limit;
+        if (pageSize < 1) {
+            throw new BadRequestException("Limit must be greater than zero");
+        }
+        return Math.min(pageSize, limits.getMaxLimit());
+    }
+}
@@ -0,0 +1,174 @@
+package com.sh.testcontainers_demo.controller;
+
+import com.sh.testcontainers_demo.config.UserProperties;
+import com.sh.testcontainers_demo.dto.AddressResponse;
+import com.sh.testcontainers_demo.dto.BulkUserUpsertResponse;
+import com.sh.testcontainers_demo.dto.CursorPage;
+import com.sh.testcontainers_demo.dto.UserRequest;
+import com.sh.testcontainers_demo.dto.UserResponse;
+import com.sh.testcontainers_demo.dto.UserUpsertRequest;
+import com.sh.testcontainers_demo.exception.BadRequestException;
+import com.sh.testcontainers_demo.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+public class UserController {
+    /**
+     * Value of the {@code expand} parameter that includes the addresses of users.
+     */
+    public static final String EXPAND_ADDRESS = "address";
+
+    private final UserService userService;
+    private final UserProperties userProperties;
+
+    /**
+     * Creates a new user together with its addresses.
+     *
+     * @param request the user request DTO
+     * @return ResponseEntity with the created user and HTTP status 201
+     */
+    @PostMapping
+    public ResponseEntity<UserResponse> createUser(@Valid @RequestBody UserRequest request) {
+        log.info("Received request to create user with {} addresses", request.address().size());
+        UserResponse response = userService.createUser(request);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    /**
+     * Retrieves a user by its ID.
+     * <p>
+     * The addresses of the user are only loaded and returned with {@code expand=address}.
+     * Users owning many addresses should page through them with GET /users/{id}/addresses.
+     * </p>
+     *
+     * @param id     the ID of the user
+     * @param expand the associations to include, if any
+     * @return ResponseEntity with the user and HTTP status 200
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id,
+                                                    @RequestParam(required = false) List<String> expand) {
+        log.info("Received request to get user with ID: {} expanding: {}", id, expand);
+        return ResponseEntity.ok(userService.getUserById(id, expandAddress(expand)));
+    }
+
+    /**
+     * Retrieves users using cursor (keyset) pagination on the user ID.
+     * <p>
+     * The addresses of the users are only loaded and returned with {@code expand=address}.
+     * </p>
+     *
+     * @param after  the cursor returned by the previous page, or absent for the first page
+     * @param limit  the maximum number of users to return, clamped to the configured maximum
+     * @param expand the associations to include, if any
+     * @return ResponseEntity with the page of users and HTTP status 200
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<UserResponse>> getAllUsers(@RequestParam(required = false) Long after,
+                                                                @RequestParam(required = false) Integer limit,
+                                                                @RequestParam(required = false) List<String> expand) {
+        int pageSize = PageSizes.resolve(limit, userProperties.getPagination());
+        log.info("Received request to get users after ID: {} with limit: {} expanding: {}", after, pageSize, expand);
+        return ResponseEntity.ok(userService.getUserPage(after, pageSize, expandAddress(expand)));
+    }
+
+    /**
+     * Retrieves the addresses of a user using cursor (keyset) pagination on the address ID.
+     *
+     * @param id    the ID of the user
+     * @param after the cursor returned by the previous page, or absent for the first page
+     * @param limit the maximum number of addresses to return, clamped to the configured maximum
+     * @return ResponseEntity with the page of addresses and HTTP status 200
+     */
+    @GetMapping("/{id}/addresses")
+    public ResponseEntity<CursorPage<AddressResponse>> getUserAddresses(@PathVariable Long id,
+                                                                        @RequestParam(required = false) Long after,
+                                                                        @RequestParam(required = false) Integer limit) {
+        int pageSize = PageSizes.resolve(limit, userProperties.getPagination());
+        log.info("Received request to get addresses of user with ID: {} after ID: {} with limit: {}", id, after, pageSize);
+        return ResponseEntity.ok(userService.getUserAddressPage(id, after, pageSize));
+    }
+
+    /**
+     * Replaces the name, email and addresses of an existing user.
+     *
+     * @param id      the ID of the user to update
+     * @param request the user request DTO with the new data
+     * @return ResponseEntity with the updated user and HTTP status 200
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @Valid @RequestBody UserRequest request) {
+        log.info("Received request to update user with ID: {}", id);
+        return ResponseEntity.ok(userService.updateUser(id, request));
+    }
+
+    /**
+     * Creates or updates the user with the given email.
+     * <p>
+     * Idempotent: repeating the request leaves the user as it is. The email in the body
+     * must match the one in the path.
+     * </p>
+     *
+     * @param email   the email identifying the user
+     * @param request the user upsert request DTO
+     * @return ResponseEntity with HTTP status 204
+     */
+    @PutMapping("/by-email/{email}")
+    public ResponseEntity<Void> upsertUser(@PathVariable String email, @Valid @RequestBody UserUpsertRequest request) {
+        log.info("Received request to upsert user by email");
+        if (!email.equals(request.email())) {
+            throw new BadRequestException("Email in the body must match the email in the path");
+        }
+        userService.upsertUser(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Creates or updates many users identified by their email.
+     *
+     * @param requests the list of user upsert request DTOs
+     * @return ResponseEntity with the number of received and written users and HTTP status 200
+     */
+    @PutMapping("/by-email")
+    public ResponseEntity<BulkUserUpsertResponse> upsertUsers(@RequestBody List<@Valid UserUpsertRequest> requests) {
+        log.info("Received request to upsert {} users by email", requests.size());
+        return ResponseEntity.ok(userService.upsertUsers(requests));
+    }
+
+    /**
+     * Deletes a user together with its addresses.
+     *
+     * @param id the ID of the user to delete
+     * @return ResponseEntity with HTTP status 204
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+        log.info("Received request to delete user with ID: {}", id);
+        userService.deleteUser(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /*
+     * Checks the requested expansions and tells whether the addresses are among them.
+     */
+    private static boolean expandAddress(List<String> expand) {
+        if (expand == null) {
+            return false;
+        }
+        List<String> unknown = expand.stream().map(String::trim).filter(value -> !value.equals(EXPAND_ADDRESS)).toList();
+        if (!unknown.isEmpty()) {
+            throw new BadRequestException("Unknown expansions " + unknown + ", expected: " + EXPAND_ADDRESS);
+        }
+        return !expand.isEmpty();
+    }
+}
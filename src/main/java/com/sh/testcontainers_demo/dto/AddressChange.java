@@ -0,0 +1,32 @@
+package com.sh.testcontainers_demo.dto;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object for one entry of the address change feed.
+ * <p>
+ * An entry either carries the current state of a created or updated address, or
+ * reports that the address was deleted, in which case {@code address} is {@code null}.
+ * </p>
+ *
+ * @param type      whether the address was created or updated, or deleted
+ * @param id        the ID of the address
+ * @param changedAt the time of the change
+ * @param address   the current state of the address, or {@code null} when it was deleted
+ * @author Shailesh Halor
+ */
+public record AddressChange(
+        Type type,
+        Long id,
+        Instant changedAt,
+        AddressResponse address
+) {
+
+    /**
+     * The kinds of change reported by the feed.
+     */
+    public enum Type {
+        UPSERTED,
+        DELETED
+    }
+}
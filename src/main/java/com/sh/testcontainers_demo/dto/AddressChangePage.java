@@ -0,0 +1,23 @@
+package com.sh.testcontainers_demo.dto;
+
+import java.util.List;
+
+/**
+ * A single page of the address change feed.
+ * <p>
+ * Unlike {@link CursorPage}, the {@code nextCursor} is returned on the last page too:
+ * it marks how far the client has synced, and sending it with the next poll returns
+ * only the changes made since.
+ * </p>
+ *
+ * @param changes    the changes of the current page, oldest first
+ * @param nextCursor the token to continue the feed from
+ * @param hasMore    whether further changes are available right away
+ * @author Shailesh Halor
+ */
+public record AddressChangePage(
+        List<AddressChange> changes,
+        String nextCursor,
+        boolean hasMore
+) {
+}
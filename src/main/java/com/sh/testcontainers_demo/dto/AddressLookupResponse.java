@@ -0,0 +1,20 @@
+package com.sh.testcontainers_demo.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the result of looking up many addresses by ID.
+ * <p>
+ * This record holds the addresses that were found, in the order their IDs were
+ * requested, and the requested IDs for which no address exists.
+ * </p>
+ *
+ * @param addresses the addresses found, in request order
+ * @param missing   the requested IDs without an address, in request order
+ * @author Shailesh Halor
+ */
+public record AddressLookupResponse(
+        List<AddressResponse> addresses,
+        List<Long> missing
+) {
+}
@@ -0,0 +1,30 @@
+package com.sh.testcontainers_demo.dto;
+
+/**
+ * Data Transfer Object for partially updating an Address with JSON Merge Patch.
+ * <p>
+ * Only the fields present in the patch document are applied; absent fields are
+ * {@code null} and leave the stored value untouched. Since every address column is
+ * mandatory, explicit {@code null} members are rejected before this record is built.
+ * </p>
+ *
+ * @param street  the street address, or {@code null} to keep the current value
+ * @param city    the city, or {@code null} to keep the current value
+ * @param state   the state, or {@code null} to keep the current value
+ * @param zipCode the zip code, or {@code null} to keep the current value
+ * @param country the country, or {@code null} to keep the current value
+ * @author Shailesh Halor
+ */
+public record AddressPatchRequest(
+        @NullOrNotBlank(message = "Street cannot be blank")
+        String street,
+        @NullOrNotBlank(message = "City cannot be blank")
+        String city,
+        @NullOrNotBlank(message = "State cannot be blank")
+        String state,
+        @NullOrNotBlank(message = "Zip code cannot be blank")
+        String zipCode,
+        @NullOrNotBlank(message = "Country cannot be blank")
+        String country
+) {
+}
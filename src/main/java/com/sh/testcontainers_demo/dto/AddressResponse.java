@@ -1,12 +1,15 @@
 package com.sh.testcontainers_demo.dto;
 
+import java.lang.reflect.RecordComponent;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Data Transfer Object for Address entity.
  * <p>
  * This record encapsulates the data related to an address,
- * including id, street, city, state, zip code, country, and auditing fields.
+ * including id, street, city, state, zip code, country, auditing fields and version.
  * </p>
  *
  * @param id          the unique identifier of the address
@@ -19,6 +22,7 @@ import java.time.Instant;
  * @param updatedAt   the last update timestamp
  * @param createdBy   the creator
  * @param lastModifiedBy the last modifier
+ * @param version     the version of the address, incremented by every update
  *
  * @author Shailesh Halor
  */
@@ -32,5 +36,14 @@ public record AddressResponse(
     Instant createdAt,
     Instant updatedAt,
     String createdBy,
-    String lastModifiedBy
-) {}
+    String lastModifiedBy,
+    Long version
+) {
+
+    /**
+     * The names of all fields, in declaration order; they match the attributes of the Address entity.
+     */
+    public static final List<String> FIELDS = Arrays.stream(AddressResponse.class.getRecordComponents())
+            .map(RecordComponent::getName)
+            .toList();
+}
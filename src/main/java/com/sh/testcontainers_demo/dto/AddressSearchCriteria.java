@@ -0,0 +1,23 @@
+package com.sh.testcontainers_demo.dto;
+
+/**
+ * Filters for searching addresses.
+ * <p>
+ * Every filter is optional and matches the address column exactly; the filters that
+ * are present are combined with AND.
+ * </p>
+ *
+ * @param city    the city to match, or {@code null} for any city
+ * @param state   the state to match, or {@code null} for any state
+ * @param country the country to match, or {@code null} for any country
+ * @param zipCode the zip code to match, or {@code null} for any zip code
+ *
+ * @author Shailesh Halor
+ */
+public record AddressSearchCriteria(
+        String city,
+        String state,
+        String country,
+        String zipCode
+) {
+}
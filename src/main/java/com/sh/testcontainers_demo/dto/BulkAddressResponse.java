@@ -0,0 +1,20 @@
+package com.sh.testcontainers_demo.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the result of a bulk address creation.
+ * <p>
+ * This record reports the IDs of the created addresses, in request order,
+ * and how long each persisted chunk took.
+ * </p>
+ *
+ * @param ids                  the IDs of the created addresses
+ * @param chunkDurationsMillis the time taken to persist each chunk, in milliseconds
+ * @author Shailesh Halor
+ */
+public record BulkAddressResponse(
+        List<Long> ids,
+        List<Long> chunkDurationsMillis
+) {
+}
@@ -0,0 +1,18 @@
+package com.sh.testcontainers_demo.dto;
+
+/**
+ * Data Transfer Object for the result of a bulk user upsert.
+ * <p>
+ * This record reports how many distinct users were received and how many of them
+ * were actually inserted or changed; replaying the same records writes nothing.
+ * </p>
+ *
+ * @param received the number of distinct emails in the request
+ * @param written  the number of users inserted or updated
+ * @author Shailesh Halor
+ */
+public record BulkUserUpsertResponse(
+        int received,
+        int written
+) {
+}
@@ -0,0 +1,78 @@
+package com.sh.testcontainers_demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the address change feed: the time and address ID of the last change seen.
+ * <p>
+ * Changes are ordered by time and then ID, so the pair identifies a position even when
+ * several changes share a timestamp. Clients only see the opaque {@link #encode() encoded}
+ * form.
+ * </p>
+ *
+ * @param changedAt the time of the last change seen
+ * @param id        the ID of the address changed last
+ * @author Shailesh Halor
+ */
+public record ChangeCursor(
+        Instant changedAt,
+        Long id
+) {
+
+    /**
+     * Returns the cursor positioned just before the first change at or after the given time.
+     * <p>
+     * Generated IDs are always positive, so ID 0 precedes every change at that time.
+     * </p>
+     *
+     * @param since the time to start from
+     * @return the cursor
+     */
+    public static ChangeCursor since(Instant since) {
+        return new ChangeCursor(since, 0L);
+    }
+
+    /**
+     * Returns the cursor positioned after the given change.
+     *
+     * @param change the change
+     * @return the cursor
+     */
+    public static ChangeCursor after(AddressChange change) {
+        return new ChangeCursor(change.changedAt(), change.id());
+    }
+
+    /**
+     * Encodes the cursor as an opaque, URL-safe token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((changedAt + "/" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the token
+     * @return the cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ChangeCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf('/');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed change cursor: " + token);
+            }
+            return new ChangeCursor(Instant.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed change cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.sh.testcontainers_demo.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A single page of results from a cursor (keyset) paginated query.
+ * <p>
+ * The {@code nextCursor} is an opaque token to send back to fetch the next page;
+ * it is {@code null} when there are no more results.
+ * </p>
+ *
+ * @param content    the items of the current page
+ * @param nextCursor the token for the next page, or {@code null} on the last page
+ * @param <T>        the type of the page items
+ * @author Shailesh Halor
+ */
+public record CursorPage<T>(
+        List<T> content,
+        String nextCursor
+) {
+
+    /**
+     * Returns the ID after which to read the page for the given cursor.
+     * <p>
+     * Generated IDs are always positive, so 0 starts from the first row.
+     * </p>
+     *
+     * @param after the ID sent by the client, or {@code null} for the first page
+     * @return the ID to read after
+     */
+    public static long startAfter(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    /**
+     * Builds a page from rows read in ID order with one row more than the page size.
+     * <p>
+     * The extra row only tells that a further page exists: it is dropped, and the next
+     * cursor is the ID of the last row kept.
+     * </p>
+     *
+     * @param rows  the rows read, at most {@code limit + 1}
+     * @param limit the page size
+     * @param id    the function returning the ID of a row
+     * @param <T>   the type of the rows
+     * @return the page of at most {@code limit} rows
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<? super T, ?> id) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, limit);
+        return new CursorPage<>(content, String.valueOf(id.apply(content.getLast())));
+    }
+
+    /**
+     * Returns a page with the same cursor and the given content, such as the DTOs of the rows.
+     *
+     * @param content the items of the page
+     * @param <R>     the type of the page items
+     * @return the page
+     */
+    public <R> CursorPage<R> withContent(List<R> content) {
+        return new CursorPage<>(content, nextCursor);
+    }
+}
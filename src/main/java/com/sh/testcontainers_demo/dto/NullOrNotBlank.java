@@ -0,0 +1,47 @@
+package com.sh.testcontainers_demo.dto;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Validates that a value is either {@code null} or contains at least one non-whitespace character.
+ * <p>
+ * Used by partial updates, where {@code null} means the field is left untouched but a present
+ * value must satisfy the same rule as {@link jakarta.validation.constraints.NotBlank} on a full
+ * request, including values that span several lines.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Documented
+@Constraint(validatedBy = NullOrNotBlank.Validator.class)
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER, ElementType.RECORD_COMPONENT,
+        ElementType.TYPE_USE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NullOrNotBlank {
+
+    String message() default "must be null or not blank";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    /**
+     * Validator accepting {@code null} and any character sequence that is not blank.
+     */
+    class Validator implements ConstraintValidator<NullOrNotBlank, CharSequence> {
+
+        @Override
+        public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+            return value == null || !value.toString().isBlank();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.sh.testcontainers_demo.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -15,7 +16,7 @@ import java.util.List;
  *
  * @param name    the name of the user
  * @param email   the email of the user
- * @param address the list of addresses associated with the user
+ * @param address the list of addresses associated with the user, each validated as well
  * @author Shailesh Halor
  */
 public record UserRequest(
@@ -26,6 +27,6 @@ public record UserRequest(
         String email,
         @NotNull(message = "Address list must not be null")
         @Size(min = 1, message = "At least one address is required")
-        List<@NotNull AddressRequest> address
+        List<@NotNull @Valid AddressRequest> address
 ) {
 }
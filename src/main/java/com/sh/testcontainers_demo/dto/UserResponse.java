@@ -1,5 +1,7 @@
 package com.sh.testcontainers_demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.Instant;
 import java.util.List;
 
@@ -17,7 +19,7 @@ import java.util.List;
  * @param updatedAt the last update timestamp
  * @param createdBy the creator
  * @param lastModifiedBy the last modifier
- * @param address the list of addresses associated with the user
+ * @param address the list of addresses associated with the user, or {@code null} when not requested
  *
  * @author Shailesh Halor
  */
@@ -29,5 +31,6 @@ public record UserResponse(
     Instant updatedAt,
     String createdBy,
     String lastModifiedBy,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     List<AddressResponse> address
 ) {}
@@ -0,0 +1,24 @@
+package com.sh.testcontainers_demo.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Data Transfer Object for creating or updating a User identified by its email.
+ * <p>
+ * This record carries the user fields a sync job owns; the addresses of an
+ * existing user are left alone.
+ * </p>
+ *
+ * @param email the email identifying the user
+ * @param name  the name of the user
+ * @author Shailesh Halor
+ */
+public record UserUpsertRequest(
+        @NotBlank(message = "Email must not be blank")
+        @Email(message = "Email should be valid")
+        String email,
+        @NotBlank(message = "Name must not be blank")
+        String name
+) {
+}
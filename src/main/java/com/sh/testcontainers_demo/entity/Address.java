@@ -1,8 +1,12 @@
 package com.sh.testcontainers_demo.entity;
 
+import com.sh.testcontainers_demo.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Getter
 @Setter
@@ -11,11 +15,20 @@ import lombok.experimental.SuperBuilder;
 @ToString
 @SuperBuilder
 @Entity
-@Table(name = "address")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ADDRESS_REGION)
+@DynamicUpdate
+@Table(name = "address", indexes = {
+        @Index(name = "idx_address_country_state_city", columnList = "country, state, city, id"),
+        @Index(name = "idx_address_city_state", columnList = "city, state, id"),
+        @Index(name = "idx_address_zip_code", columnList = "zip_code, id"),
+        @Index(name = "idx_address_updated_date", columnList = "updated_date, id"),
+        @Index(name = "idx_address_user_id", columnList = "user_id, id")
+})
 public class Address extends AuditableEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_seq")
+    @SequenceGenerator(name = "address_seq", sequenceName = "address_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -29,8 +42,9 @@ public class Address extends AuditableEntity {
     @Column(nullable = false)
     private String country;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
     private User user;
 
 }
@@ -0,0 +1,35 @@
+package com.sh.testcontainers_demo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Record of a deleted address, kept so that the change feed can report deletions.
+ * <p>
+ * Address IDs come from a sequence and are never reused, so the ID of the deleted
+ * address identifies its tombstone.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Builder
+@Entity
+@Table(name = "address_tombstone", indexes = {
+        @Index(name = "idx_address_tombstone_deleted_date", columnList = "deleted_date, address_id")
+})
+public class AddressTombstone {
+
+    @Id
+    @Column(name = "address_id")
+    private Long addressId;
+
+    @Column(name = "deleted_date", nullable = false)
+    private Instant deletedAt;
+}
@@ -14,7 +14,8 @@ import java.time.Instant;
 
 /**
  * Base class for entities that require auditing information.
- * Provides fields for creation and update timestamps.
+ * Provides fields for creation and update timestamps, and a version
+ * incremented by every update for optimistic concurrency and ETags.
  * <p>
  * This class should be extended by any entity that requires auditing.
  * </p>
@@ -46,6 +47,10 @@ public abstract class AuditableEntity implements Serializable {
     @Column(name = "last_modified_by")
     private String lastModifiedBy;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * Default constructor.
      * <p>
@@ -1,8 +1,12 @@
 package com.sh.testcontainers_demo.entity;
 
+import com.sh.testcontainers_demo.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -13,11 +17,20 @@ import java.util.List;
 @ToString
 @SuperBuilder
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USER_REGION)
+@BatchSize(size = 50)
+@NamedEntityGraph(name = User.WITH_ADDRESS, attributeNodes = @NamedAttributeNode("address"))
 @Table(name = "\"user\"")
 public class User extends AuditableEntity {
 
+    /**
+     * Name of the entity graph that loads a user together with its addresses.
+     */
+    public static final String WITH_ADDRESS = "User.address";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,8 +38,10 @@ public class User extends AuditableEntity {
     @Column(nullable = false, unique = true)
     private String email;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id")
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USER_ADDRESS_REGION)
+    @BatchSize(size = 50)
     @ToString.Exclude
     private List<Address> address;
 
@@ -1,12 +1,16 @@
 package com.sh.testcontainers_demo.entity.mapper;
 
+import com.sh.testcontainers_demo.dto.AddressPatchRequest;
 import com.sh.testcontainers_demo.dto.AddressRequest;
 import com.sh.testcontainers_demo.dto.AddressResponse;
 import com.sh.testcontainers_demo.entity.Address;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 import static org.mapstruct.MappingConstants.ComponentModel.SPRING;
+import static org.mapstruct.NullValuePropertyMappingStrategy.IGNORE;
 
 /**
  * Mapper interface for Address entity and AddressResponse, AddressRequest.
@@ -39,6 +43,45 @@ public interface AddressMapper {
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "lastModifiedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "user", ignore = true)
     Address toEntity(AddressRequest addressRequest);
+
+    /**
+     * Copies the fields of an AddressRequest onto an existing Address entity.
+     * <p>
+     * Used to update a managed entity in place, so that Hibernate dirty checking
+     * only writes the columns whose values actually changed.
+     * </p>
+     *
+     * @param addressRequest the AddressRequest
+     * @param address        the Address entity to update
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "lastModifiedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    void updateEntity(AddressRequest addressRequest, @MappingTarget Address address);
+
+    /**
+     * Applies the fields present in an AddressPatchRequest to an existing Address entity.
+     * <p>
+     * Fields that are {@code null} in the patch are skipped and keep their current value.
+     * </p>
+     *
+     * @param addressPatchRequest the AddressPatchRequest
+     * @param address             the Address entity to update
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "lastModifiedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    void patchEntity(AddressPatchRequest addressPatchRequest, @MappingTarget Address address);
 }
@@ -2,9 +2,12 @@ package com.sh.testcontainers_demo.entity.mapper;
 
 import com.sh.testcontainers_demo.dto.UserRequest;
 import com.sh.testcontainers_demo.dto.UserResponse;
+import com.sh.testcontainers_demo.dto.UserUpsertRequest;
 import com.sh.testcontainers_demo.entity.User;
+import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 import static org.mapstruct.MappingConstants.ComponentModel.SPRING;
 
@@ -28,6 +31,18 @@ public interface UserMapper {
      */
     UserResponse toDto(User user);
 
+    /**
+     * Converts a User entity to a UserResponse without its addresses.
+     * <p>
+     * The address collection is not touched, so it is not loaded when still lazy.
+     * </p>
+     *
+     * @param user the User entity
+     * @return the corresponding UserResponse, with {@code address} set to {@code null}
+     */
+    @Mapping(target = "address", ignore = true)
+    UserResponse toDtoWithoutAddress(User user);
+
 
     /**
      * Converts a UserRequest to a User entity.
@@ -40,5 +55,55 @@ public interface UserMapper {
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "lastModifiedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
     User toEntity(UserRequest userRequest);
+
+    /**
+     * Converts a UserUpsertRequest to a User entity without addresses.
+     *
+     * @param userUpsertRequest the UserUpsertRequest
+     * @return the corresponding User entity
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "lastModifiedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "address", ignore = true)
+    User toUpsertEntity(UserUpsertRequest userUpsertRequest);
+
+    /**
+     * Copies the name and email of a UserRequest onto an existing User entity.
+     * <p>
+     * The addresses are left alone; the caller reconciles them with the requested ones.
+     * </p>
+     *
+     * @param userRequest the UserRequest
+     * @param user        the User entity to update
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "lastModifiedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "address", ignore = true)
+    void updateEntity(UserRequest userRequest, @MappingTarget User user);
+
+    /**
+     * Points the addresses of a newly mapped User back at it.
+     * <p>
+     * {@code Address.user} owns the association, so without the back reference the
+     * addresses would be inserted without a {@code user_id}.
+     * </p>
+     *
+     * @param user the mapped User entity
+     */
+    @AfterMapping
+    default void linkAddresses(@MappingTarget User user) {
+        if (user.getAddress() != null) {
+            user.getAddress().forEach(address -> address.setUser(user));
+        }
+    }
 }
@@ -4,5 +4,22 @@ import lombok.experimental.StandardException;
 
 @StandardException
 public class AddressNotFoundException extends RuntimeException {
-}
 
+    private AddressNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Creates the exception for an address ID that does not exist.
+     * <p>
+     * The exception carries no stack trace, since it only signals a 404 response and
+     * filling in the stack would dominate the cost of answering lookups of unknown IDs.
+     * </p>
+     *
+     * @param id the ID of the missing address
+     * @return the exception, without a stack trace
+     */
+    public static AddressNotFoundException forId(Long id) {
+        return new AddressNotFoundException("Address not found with id: " + id, false);
+    }
+}
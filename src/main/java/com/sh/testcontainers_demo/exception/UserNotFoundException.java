@@ -0,0 +1,7 @@
+package com.sh.testcontainers_demo.exception;
+
+import lombok.experimental.StandardException;
+
+@StandardException
+public class UserNotFoundException extends RuntimeException {
+}
@@ -1,18 +1,239 @@
 package com.sh.testcontainers_demo.repository;
 
+import com.sh.testcontainers_demo.dto.AddressResponse;
 import com.sh.testcontainers_demo.entity.Address;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 /**
  * Repository interface for Address entity.
  * <p>
  * This interface extends JpaRepository to provide CRUD operations
- * and custom query methods for Address entities.
+ * and custom query methods for Address entities, JpaSpecificationExecutor
+ * to query them with the {@link AddressSpecifications}, and {@link AddressRepositoryCustom}
+ * for queries built at runtime.
  * </p>
  *
  * @author Shailesh Halor
  */
 @Repository
-public interface AddressRepository extends JpaRepository<Address, Long> {
-}
\ No newline at end of file
+public interface AddressRepository extends JpaRepository<Address, Long>, JpaSpecificationExecutor<Address>,
+        AddressRepositoryCustom {
+
+    /**
+     * Number of rows fetched per JDBC round trip when streaming addresses.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Selects the columns of an address straight into an {@link AddressResponse}.
+     * <p>
+     * Queries starting with this constructor expression return DTOs instead of entities,
+     * so no entity is instantiated, no dirty-checking snapshot is kept in the persistence
+     * context and no mapping pass is needed.
+     * </p>
+     */
+    String RESPONSE_PROJECTION = "select new com.sh.testcontainers_demo.dto.AddressResponse("
+            + "a.id, a.street, a.city, a.state, a.zipCode, a.country, "
+            + "a.createdAt, a.updatedAt, a.createdBy, a.lastModifiedBy, a.version) from Address a";
+
+    /**
+     * Retrieves an address by its ID as a response DTO.
+     *
+     * @param id the ID of the address
+     * @return the address response DTO, or empty if no address has the given ID
+     */
+    @Query(RESPONSE_PROJECTION + " where a.id = :id")
+    Optional<AddressResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Retrieves the addresses with the given IDs as response DTOs with a single IN query.
+     *
+     * @param ids the IDs of the addresses
+     * @return the address response DTOs found, in no particular order
+     */
+    @Query(RESPONSE_PROJECTION + " where a.id in :ids")
+    List<AddressResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves all addresses as response DTOs, ordered by ID.
+     *
+     * @return the address response DTOs
+     */
+    @Query(RESPONSE_PROJECTION + " order by a.id")
+    List<AddressResponse> findAllResponses();
+
+    /**
+     * Retrieves the next keyset page of addresses as response DTOs, ordered by ID.
+     *
+     * @param id    the exclusive lower bound for the address ID (the cursor)
+     * @param limit the maximum number of addresses to return
+     * @return the addresses with an ID greater than the given one, in ascending ID order
+     */
+    @Query(RESPONSE_PROJECTION + " where a.id > :id order by a.id")
+    List<AddressResponse> findResponsesByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    /**
+     * Retrieves the next keyset page of the addresses of a user as response DTOs, ordered by ID.
+     * <p>
+     * The index on the user ID and the address ID serves both the filter and the order, so
+     * the cost of a page does not grow with the number of addresses the user owns.
+     * </p>
+     *
+     * @param userId the ID of the user owning the addresses
+     * @param id     the exclusive lower bound for the address ID (the cursor)
+     * @param limit  the maximum number of addresses to return
+     * @return the addresses of the user with an ID greater than the given one, in ascending ID order
+     */
+    @Query(RESPONSE_PROJECTION + " where a.user.id = :userId and a.id > :id order by a.id")
+    List<AddressResponse> findResponsesByUserIdAndIdGreaterThan(@Param("userId") Long userId, @Param("id") Long id,
+                                                               Limit limit);
+
+    /**
+     * Retrieves the addresses matching a specification as response DTOs, ordered by ID.
+     * <p>
+     * Used for keyset pages of searches, with the cursor as part of the specification.
+     * The search indexes end with the ID, so a database that derives the order of an index
+     * from the columns fixed by the filter, like PostgreSQL, reads a page without sorting.
+     * </p>
+     *
+     * @param specification the specification the addresses must match
+     * @param limit         the maximum number of addresses to return
+     * @return the matching addresses, in ascending ID order
+     */
+    default List<AddressResponse> findResponses(Specification<Address> specification, int limit) {
+        return findBy(specification, query -> query
+                .as(AddressResponse.class)
+                .sortBy(Sort.by("id"))
+                .limit(limit)
+                .all());
+    }
+
+    /**
+     * Retrieves the next keyset page of changed addresses as response DTOs, ordered by
+     * update time and then ID, so that the index on both columns serves the query.
+     *
+     * @param updatedAt the update time of the last change already seen (the cursor)
+     * @param id        the ID of the last change already seen, to break ties on the update time
+     * @param until     the exclusive upper bound for the update time
+     * @param limit     the maximum number of addresses to return
+     * @return the addresses changed after the cursor and before the upper bound
+     */
+    @Query(RESPONSE_PROJECTION + " where a.updatedAt < :until"
+            + " and (a.updatedAt > :updatedAt or (a.updatedAt = :updatedAt and a.id > :id))"
+            + " order by a.updatedAt, a.id")
+    List<AddressResponse> findResponsesChangedAfter(@Param("updatedAt") Instant updatedAt, @Param("id") Long id,
+                                                    @Param("until") Instant until, Limit limit);
+
+    /**
+     * Streams all addresses in ascending ID order through a forward-only cursor.
+     * <p>
+     * Rows are fetched from the database in chunks of {@link #STREAM_FETCH_SIZE} and loaded
+     * read-only, so no dirty-checking snapshots are kept. The stream must be consumed and
+     * closed within a transaction. Entities are hydrated while the stream is consumed, after
+     * the query has run, so a query cache mode hint would not apply; callers scanning every
+     * address should bypass the second-level cache on the session instead.
+     * </p>
+     *
+     * @return a stream of all addresses
+     */
+    @Query("select a from Address a order by a.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Address> streamAllByOrderByIdAsc();
+
+    /**
+     * Streams the ID, street and city of every address through a forward-only cursor.
+     * <p>
+     * Used to build the autocomplete index; the stream must be consumed and closed
+     * within a transaction.
+     * </p>
+     *
+     * @return a stream of the autocomplete values of all addresses
+     */
+    @Query("select a.id as id, a.street as street, a.city as city from Address a")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<AutocompleteView> streamAutocompleteViews();
+
+    /**
+     * Streams the IDs of all addresses, reading them from the primary key index only.
+     * <p>
+     * Must be consumed inside a transaction and closed afterwards.
+     * </p>
+     *
+     * @return a stream of all address IDs
+     */
+    @Query("select a.id from Address a")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Long> streamAllIds();
+
+    /**
+     * Retrieves the IDs of all addresses of a user, reading them from the index on the user ID.
+     *
+     * @param userId the ID of the user owning the addresses
+     * @return the IDs of the addresses of the user
+     */
+    @Query("select a.id from Address a where a.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Deletes the given addresses with a single set-based DELETE statement.
+     * <p>
+     * Unlike removing them through the cascade from their user, the addresses are neither
+     * loaded nor deleted one row at a time. Only the given IDs are deleted, so the caller
+     * knows exactly which addresses to evict from its own caches, even when an address
+     * was added to the same user meanwhile. Hibernate evicts the address cache regions
+     * affected by the bulk delete.
+     * </p>
+     *
+     * @param ids the IDs of the addresses to delete
+     * @return the number of deleted addresses
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Address a where a.id in :ids")
+    int deleteAddressesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves only the version of an address, without loading the entity.
+     *
+     * @param id the ID of the address
+     * @return the version of the address, or empty if no address has the given ID
+     */
+    @Query("select a.version from Address a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Projection of the address columns indexed for autocompletion.
+     */
+    interface AutocompleteView {
+
+        Long getId();
+
+        String getStreet();
+
+        String getCity();
+    }
+}
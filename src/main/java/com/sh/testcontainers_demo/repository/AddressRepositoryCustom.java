@@ -0,0 +1,56 @@
+package com.sh.testcontainers_demo.repository;
+
+import com.sh.testcontainers_demo.entity.Address;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Custom query methods for Address entities that cannot be derived by Spring Data.
+ * <p>
+ * Implemented by {@link AddressRepositoryCustomImpl} and exposed through {@link AddressRepository}.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+public interface AddressRepositoryCustom {
+
+    /**
+     * Selects only the given attributes of the addresses matching a specification, ordered by ID.
+     * <p>
+     * The SELECT clause lists exactly the requested columns, so no other column is read
+     * and no entity is instantiated.
+     * </p>
+     *
+     * @param fields        the names of the Address attributes to select, without duplicates
+     * @param specification the specification the addresses must match, or {@code null} for all
+     * @param limit         the maximum number of rows to return
+     * @return one map per address from attribute name to value, in the order of {@code fields}
+     */
+    List<Map<String, Object>> findFields(List<String> fields, Specification<Address> specification, int limit);
+
+    /**
+     * Deletes an address by its ID with a single DELETE statement, without loading it.
+     * <p>
+     * The statement returns the ID of the owning user, so that only the cached address and
+     * the cached address collection of that user are evicted from the second-level cache,
+     * rather than the whole {@code address} and {@code user.address} regions a JPQL bulk
+     * DELETE evicts. Both are evicted again after the transaction, so a concurrent load
+     * cannot leave the deleted address cached.
+     * </p>
+     *
+     * @param id the ID of the address to delete
+     * @return the number of deleted rows, 0 if no address has the given ID
+     */
+    int deleteAddressById(Long id);
+
+    /**
+     * Deletes an address by its ID like {@link #deleteAddressById(Long)}, if it still has the given version.
+     *
+     * @param id      the ID of the address to delete
+     * @param version the expected version of the address
+     * @return the number of deleted rows, 0 if no address has the given ID and version
+     */
+    int deleteAddressByIdAndVersion(Long id, Long version);
+}
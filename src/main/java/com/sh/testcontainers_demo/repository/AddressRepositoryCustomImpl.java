@@ -0,0 +1,122 @@
+package com.sh.testcontainers_demo.repository;
+
+import com.sh.testcontainers_demo.entity.Address;
+import com.sh.testcontainers_demo.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Cache;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criteria API and native SQL implementation of {@link AddressRepositoryCustom}.
+ * <p>
+ * Deletes run a single native statement that also returns the owning user: on H2 a SELECT
+ * from the {@code OLD TABLE} of the DELETE, on PostgreSQL a {@code DELETE ... RETURNING}.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+public class AddressRepositoryCustomImpl implements AddressRepositoryCustom {
+
+    private static final String USER_ADDRESS_ROLE = User.class.getName() + ".address";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(List<String> fields, Specification<Address> specification, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Address> root = query.from(Address.class);
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map(field -> root.get(field).alias(field))
+                .toList();
+        query.multiselect(selections);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(builder.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(tuple -> {
+                    Map<String, Object> row = LinkedHashMap.newLinkedHashMap(fields.size());
+                    fields.forEach(field -> row.put(field, tuple.get(field)));
+                    return row;
+                })
+                .toList();
+    }
+
+    @Override
+    public int deleteAddressById(Long id) {
+        return delete(id, null);
+    }
+
+    @Override
+    public int deleteAddressByIdAndVersion(Long id, Long version) {
+        return delete(id, version);
+    }
+
+    /*
+     * Deletes the address and evicts it and the address collection of its user from the
+     * second-level cache, now and after the transaction. Like a bulk statement, the
+     * persistence context is flushed before and cleared after.
+     */
+    private int delete(Long id, Long version) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        session.flush();
+        NativeQuery<?> query = session.createNativeQuery(deleteSql(session.getJdbcServices().getDialect(), version != null))
+                .setParameter("id", id);
+        if (version != null) {
+            query.setParameter("version", version);
+        }
+        List<?> owners = query.getResultList();
+        session.clear();
+        if (owners.isEmpty()) {
+            return 0;
+        }
+        Long userId = owners.getFirst() == null ? null : ((Number) owners.getFirst()).longValue();
+        Cache cache = session.getFactory().getCache();
+        Runnable evict = () -> {
+            cache.evictEntityData(Address.class, id);
+            if (userId != null) {
+                cache.evictCollectionData(USER_ADDRESS_ROLE, userId);
+            }
+        };
+        evict.run();
+        session.getActionQueue().registerProcess((success, completedSession) -> evict.run());
+        return owners.size();
+    }
+
+    /*
+     * Builds the DELETE statement of the given dialect, returning the user ID of the deleted row.
+     */
+    private static String deleteSql(Dialect dialect, boolean versioned) {
+        String delete = "delete from address where id = :id" + (versioned ? " and version = :version" : "");
+        if (dialect instanceof H2Dialect) {
+            return "select user_id from old table (" + delete + ")";
+        }
+        if (dialect instanceof PostgreSQLDialect) {
+            return delete + " returning user_id";
+        }
+        throw new UnsupportedOperationException("Address delete is not supported for " + dialect.getClass().getSimpleName());
+    }
+}
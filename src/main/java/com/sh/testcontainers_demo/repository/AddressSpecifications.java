@@ -0,0 +1,58 @@
+package com.sh.testcontainers_demo.repository;
+
+import com.sh.testcontainers_demo.dto.AddressSearchCriteria;
+import com.sh.testcontainers_demo.entity.Address;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Specifications for querying Address entities with {@link AddressRepository}.
+ * <p>
+ * Each filter is an equality predicate on an indexed column, so that the combinations
+ * used by the search endpoint are served by the indexes declared on {@link Address}.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+public final class AddressSpecifications {
+
+    private AddressSpecifications() {
+    }
+
+    /**
+     * Matches the addresses satisfying all filters of the given criteria that are present.
+     *
+     * @param criteria the search criteria
+     * @return the combined specification
+     */
+    public static Specification<Address> matching(AddressSearchCriteria criteria) {
+        return Specification.allOf(
+                equalTo("country", criteria.country()),
+                equalTo("state", criteria.state()),
+                equalTo("city", criteria.city()),
+                equalTo("zipCode", criteria.zipCode()));
+    }
+
+    /**
+     * Matches the address with the given ID.
+     *
+     * @param id the ID of the address
+     * @return the specification
+     */
+    public static Specification<Address> hasId(Long id) {
+        return (root, query, builder) -> builder.equal(root.get("id"), id);
+    }
+
+    /**
+     * Matches the addresses with an ID greater than the given cursor.
+     *
+     * @param id the exclusive lower bound for the address ID
+     * @return the specification
+     */
+    public static Specification<Address> idGreaterThan(Long id) {
+        return (root, query, builder) -> builder.greaterThan(root.get("id"), id);
+    }
+
+    private static Specification<Address> equalTo(String attribute, String value) {
+        return value == null ? null : (root, query, builder) -> builder.equal(root.get(attribute), value);
+    }
+}
@@ -0,0 +1,66 @@
+package com.sh.testcontainers_demo.repository;
+
+import com.sh.testcontainers_demo.entity.AddressTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for AddressTombstone entity.
+ *
+ * @author Shailesh Halor
+ */
+@Repository
+public interface AddressTombstoneRepository extends JpaRepository<AddressTombstone, Long> {
+
+    /**
+     * Records the deletion of an address with a single INSERT statement.
+     * <p>
+     * Unlike {@code save}, which merges entities with an assigned ID and so selects
+     * them first, this never reads the table.
+     * </p>
+     *
+     * @param addressId the ID of the deleted address
+     * @param deletedAt the time of the deletion
+     * @return the number of inserted tombstones
+     */
+    @Modifying
+    @Query("insert into AddressTombstone (addressId, deletedAt) values (:addressId, :deletedAt)")
+    int insertTombstone(@Param("addressId") Long addressId, @Param("deletedAt") Instant deletedAt);
+
+    /**
+     * Records the deletion of many addresses with a single INSERT ... SELECT statement.
+     * <p>
+     * Must run before the addresses are deleted, as only IDs of existing addresses are recorded.
+     * </p>
+     *
+     * @param addressIds the IDs of the addresses about to be deleted
+     * @param deletedAt  the time of the deletion
+     * @return the number of inserted tombstones
+     */
+    @Modifying
+    @Query("insert into AddressTombstone (addressId, deletedAt) select a.id, :deletedAt from Address a where a.id in :addressIds")
+    int insertTombstones(@Param("addressIds") Collection<Long> addressIds, @Param("deletedAt") Instant deletedAt);
+
+    /**
+     * Retrieves the next keyset page of tombstones, ordered by deletion time and then address ID.
+     *
+     * @param deletedAt the time of the last change already seen (the cursor)
+     * @param addressId the ID of the last change already seen, to break ties on the time
+     * @param until     the exclusive upper bound for the deletion time
+     * @param limit     the maximum number of tombstones to return
+     * @return the tombstones recorded after the cursor and before the upper bound
+     */
+    @Query("select t from AddressTombstone t where t.deletedAt < :until"
+            + " and (t.deletedAt > :deletedAt or (t.deletedAt = :deletedAt and t.addressId > :addressId))"
+            + " order by t.deletedAt, t.addressId")
+    List<AddressTombstone> findDeletedAfter(@Param("deletedAt") Instant deletedAt, @Param("addressId") Long addressId,
+                                            @Param("until") Instant until, Limit limit);
+}
@@ -1,18 +1,104 @@
 package com.sh.testcontainers_demo.repository;
 
 import com.sh.testcontainers_demo.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for User entity.
  * <p>
  * This interface extends JpaRepository to provide CRUD operations
- * and custom query methods for User entities.
+ * and custom query methods for User entities, and {@link UserRepositoryCustom}
+ * for the native upsert by email.
  * </p>
  *
  * @author Shailesh Halor
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    /**
+     * Retrieves the next keyset page of users, ordered by ID.
+     *
+     * @param id    the exclusive lower bound for the user ID (the cursor)
+     * @param limit the maximum number of users to return
+     * @return the users with an ID greater than the given one, in ascending ID order
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Retrieves a user together with its addresses in a single query.
+     *
+     * @param id the ID of the user
+     * @return the user with its addresses initialized, or empty if no user has the given ID
+     */
+    @EntityGraph(User.WITH_ADDRESS)
+    Optional<User> findWithAddressById(Long id);
+
+    /**
+     * Retrieves the IDs of the next keyset page of users, ordered by ID.
+     * <p>
+     * First phase of paging users with their addresses: a LIMIT on a query that joins
+     * the addresses would count address rows rather than users, so the page is decided
+     * on the user IDs alone.
+     * </p>
+     *
+     * @param id    the exclusive lower bound for the user ID (the cursor)
+     * @param limit the maximum number of IDs to return
+     * @return the user IDs greater than the given one, in ascending order
+     */
+    @Query("select u.id from User u where u.id > :id order by u.id")
+    List<Long> findIdsByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    /**
+     * Retrieves the given users together with their addresses in a single query.
+     * <p>
+     * Second phase of paging users with their addresses, for the IDs returned by
+     * {@link #findIdsByIdGreaterThan(Long, Limit)}.
+     * </p>
+     *
+     * @param ids the IDs of the users
+     * @return the users with their addresses initialized, in ascending ID order
+     */
+    @EntityGraph(User.WITH_ADDRESS)
+    List<User> findWithAddressByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * Locks the row of a user until the end of the transaction, without loading the user.
+     * <p>
+     * Concurrent writers of the user wait for the transaction, and so do inserts of
+     * addresses referencing it on databases whose foreign key checks lock the referenced
+     * row, such as PostgreSQL.
+     * </p>
+     *
+     * @param id the ID of the user
+     * @return the ID of the locked user, or empty if no user has the given ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u.id from User u where u.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
+
+    /**
+     * Deletes a user by its ID with a single DELETE statement, without loading it.
+     * <p>
+     * Nothing is cascaded, so the addresses of the user must have been deleted before.
+     * </p>
+     *
+     * @param id the ID of the user
+     * @return the number of deleted users, 0 if no user has the given ID
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
 }
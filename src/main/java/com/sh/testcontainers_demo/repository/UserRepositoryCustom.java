@@ -0,0 +1,38 @@
+package com.sh.testcontainers_demo.repository;
+
+import com.sh.testcontainers_demo.entity.User;
+
+import java.util.List;
+
+/**
+ * Custom query methods for User entities that cannot be derived by Spring Data.
+ * <p>
+ * Implemented by {@link UserRepositoryCustomImpl} and exposed through {@link UserRepository}.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Inserts or updates the given users, matched on their email, with a single native statement.
+     * <p>
+     * Users with an unknown email are inserted; users with a known email get their name
+     * updated, and only when it differs, so that replaying the same users writes nothing.
+     * Addresses are not touched.
+     * </p>
+     * <p>
+     * On PostgreSQL, {@code ON CONFLICT} resolves the match atomically, so concurrent upserts
+     * of the same email neither race nor fail on the unique constraint. H2's {@code MERGE} can
+     * still fail on it when two transactions insert the same new email concurrently.
+     * </p>
+     * <p>
+     * As the statement is native, Hibernate cannot tell which users it changed and clears
+     * the whole {@code user} cache region on every call.
+     * </p>
+     *
+     * @param users the users to upsert, with their name and email set and distinct emails
+     * @return the number of users inserted or updated
+     */
+    int upsertByEmail(List<User> users);
+}
@@ -0,0 +1,91 @@
+package com.sh.testcontainers_demo.repository;
+
+import com.sh.testcontainers_demo.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.query.NativeQuery;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Native SQL implementation of {@link UserRepositoryCustom}.
+ * <p>
+ * H2 runs a {@code MERGE INTO ... USING (VALUES ...)}. PostgreSQL runs an
+ * {@code INSERT ... ON CONFLICT (email) DO UPDATE} instead of its MERGE, which can still
+ * fail on the unique constraint when two transactions insert the same email concurrently.
+ * The statement is synchronized with the User entity, which clears the whole {@code user}
+ * cache region on every call.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String COLUMNS = "id, email, name, created_date, updated_date, created_by, last_modified_by, version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int upsertByEmail(List<User> users) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        SessionFactoryImplementor sessionFactory = session.getFactory();
+        // IDs come from the pooled sequence optimizer, as for persisted users; unused ones are skipped
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(User.class).getGenerator();
+        NativeQuery<?> query = session.createNativeQuery(upsertSql(sessionFactory.getJdbcServices().getDialect(), users.size()))
+                .addSynchronizedEntityClass(User.class)
+                .setParameter("now", Instant.now());
+        for (int i = 0; i < users.size(); i++) {
+            query.setParameter("id" + i, generator.generate(session, null, null, EventType.INSERT))
+                    .setParameter("email" + i, users.get(i).getEmail())
+                    .setParameter("name" + i, users.get(i).getName());
+        }
+        return query.executeUpdate();
+    }
+
+    /*
+     * Builds the upsert statement of the given dialect for the given number of users.
+     * The audit columns are set the way AuditableEntity sets them on persist and update.
+     */
+    private static String upsertSql(Dialect dialect, int rows) {
+        if (dialect instanceof H2Dialect) {
+            return "merge into \"user\" u using (values " + values(rows, "cast(:id%1$d as bigint), cast(:email%1$d as varchar), cast(:name%1$d as varchar)")
+                    + ") s(id, email, name) on u.email = s.email"
+                    + " when matched and u.name <> s.name then update set name = s.name, updated_date = :now,"
+                    + " last_modified_by = 'system', version = u.version + 1"
+                    + " when not matched then insert (" + COLUMNS + ")"
+                    + " values (s.id, s.email, s.name, :now, :now, 'System', 'system', 0)";
+        }
+        if (dialect instanceof PostgreSQLDialect) {
+            return "insert into \"user\" (" + COLUMNS + ") values "
+                    + values(rows, ":id%1$d, :email%1$d, :name%1$d, :now, :now, 'System', 'system', 0")
+                    + " on conflict (email) do update set name = excluded.name, updated_date = excluded.updated_date,"
+                    + " last_modified_by = 'system', version = \"user\".version + 1"
+                    + " where \"user\".name <> excluded.name";
+        }
+        throw new UnsupportedOperationException("Upsert by email is not supported for " + dialect.getClass().getSimpleName());
+    }
+
+    /*
+     * Joins one parenthesized row per user, numbering the parameters of each row.
+     */
+    private static String values(int rows, String row) {
+        return IntStream.range(0, rows)
+                .mapToObj(i -> "(" + row.formatted(i) + ")")
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,138 @@
+package com.sh.testcontainers_demo.service;
+
+import com.sh.testcontainers_demo.config.AddressProperties;
+import com.sh.testcontainers_demo.dto.AddressResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent reads of the same address into a single database read.
+ * <p>
+ * The first caller for a read runs it on the {@link AddressService} and every caller
+ * arriving while that read is in flight waits for and shares its result, or its exception,
+ * instead of starting a transaction of its own. Callers arriving after the read has finished
+ * start a new one, so results are never reused beyond the in-flight window. Shared reads are
+ * counted in the {@code address.load.coalesced} counter.
+ * </p>
+ * <p>
+ * Only reads that the {@link com.sh.testcontainers_demo.cache.AddressResponseCache} does not
+ * already serialize go through here: full addresses while the response cache is disabled,
+ * the version lookups of {@code If-None-Match} requests and sparse field reads. A cache miss
+ * already holds back concurrent callers for the same ID until the first one has loaded it,
+ * and its loads are published with the {@code address.response} cache metrics.
+ * </p>
+ * <p>
+ * Disabled unless {@code app.address.coalescing.enabled} is set, in which case every call
+ * goes straight to the service.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@Component
+public class AddressLoadCoalescer {
+
+    private final AddressService addressService;
+    private final AddressProperties addressProperties;
+    private final Counter coalesced;
+    private final ConcurrentMap<Read, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    /*
+     * Identifies a read: the kind of read, the ID of the address and the requested fields, if any.
+     */
+    private record Read(String kind, Long id, List<String> fields) {
+    }
+
+    /**
+     * Creates the coalescer from the address properties.
+     *
+     * @param addressService    the service loading addresses
+     * @param addressProperties the address properties
+     * @param meterRegistry     the registry to publish the coalesced load counter to
+     */
+    public AddressLoadCoalescer(AddressService addressService, AddressProperties addressProperties, MeterRegistry meterRegistry) {
+        this.addressService = addressService;
+        this.addressProperties = addressProperties;
+        this.coalesced = meterRegistry.counter("address.load.coalesced");
+    }
+
+    /**
+     * Retrieves an address by its ID, sharing the load with concurrent callers for the same ID.
+     *
+     * @param id the ID of the address
+     * @return the address response DTO
+     */
+    public AddressResponse getAddressById(Long id) {
+        return coalesce(new Read("address", id, null), () -> addressService.getAddressById(id));
+    }
+
+    /**
+     * Retrieves the version of an address, sharing the lookup with concurrent callers for the same ID.
+     *
+     * @param id the ID of the address
+     * @return the version of the address
+     */
+    public Long getAddressVersion(Long id) {
+        return coalesce(new Read("version", id, null), () -> addressService.getAddressVersion(id));
+    }
+
+    /**
+     * Retrieves the given fields of an address, sharing the read with concurrent callers
+     * for the same ID and fields.
+     *
+     * @param id     the ID of the address
+     * @param fields the names of the fields to return
+     * @return the requested fields of the address
+     */
+    public Map<String, Object> getAddressFields(Long id, List<String> fields) {
+        return coalesce(new Read("fields", id, List.copyOf(fields)), () -> addressService.getAddressFields(id, fields));
+    }
+
+    /*
+     * Runs the read, or joins the identical read already in flight.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(Read read, Supplier<T> loader) {
+        if (!addressProperties.getCoalescing().isEnabled()) {
+            return loader.get();
+        }
+        CompletableFuture<T> load = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(read, load);
+        if (existing != null) {
+            coalesced.increment();
+            log.debug("Joining in-flight {} read of address with ID: {}", read.kind(), read.id());
+            return join(existing);
+        }
+        try {
+            T result = loader.get();
+            load.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(read, load);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
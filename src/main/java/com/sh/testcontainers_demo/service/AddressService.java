@@ -1,17 +1,52 @@
 package com.sh.testcontainers_demo.service;
 
+import com.sh.testcontainers_demo.cache.AddressAutocompleteIndex;
+import com.sh.testcontainers_demo.cache.AddressIdFilter;
+import com.sh.testcontainers_demo.cache.AddressResponseCache;
+import com.sh.testcontainers_demo.config.AddressProperties;
+import com.sh.testcontainers_demo.dto.AddressChange;
+import com.sh.testcontainers_demo.dto.AddressChangePage;
+import com.sh.testcontainers_demo.dto.AddressLookupResponse;
+import com.sh.testcontainers_demo.dto.AddressPatchRequest;
 import com.sh.testcontainers_demo.dto.AddressRequest;
 import com.sh.testcontainers_demo.dto.AddressResponse;
+import com.sh.testcontainers_demo.dto.AddressSearchCriteria;
+import com.sh.testcontainers_demo.dto.BulkAddressResponse;
+import com.sh.testcontainers_demo.dto.ChangeCursor;
+import com.sh.testcontainers_demo.dto.CursorPage;
 import com.sh.testcontainers_demo.entity.Address;
 import com.sh.testcontainers_demo.entity.mapper.AddressMapper;
 import com.sh.testcontainers_demo.exception.AddressNotFoundException;
+import com.sh.testcontainers_demo.exception.PreconditionFailedException;
 import com.sh.testcontainers_demo.repository.AddressRepository;
+import com.sh.testcontainers_demo.repository.AddressSpecifications;
+import com.sh.testcontainers_demo.repository.AddressTombstoneRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing Address entities.
@@ -29,7 +64,14 @@ import java.util.List;
 public class AddressService {
 
     private final AddressRepository addressRepository;
+    private final AddressTombstoneRepository addressTombstoneRepository;
     private final AddressMapper addressMapper;
+    private final EntityManager entityManager;
+    private final AddressProperties addressProperties;
+    private final MeterRegistry meterRegistry;
+    private final AddressResponseCache addressResponseCache;
+    private final AddressAutocompleteIndex addressAutocompleteIndex;
+    private final AddressIdFilter addressIdFilter;
 
     /**
      * Creates a new address.
@@ -42,12 +84,91 @@ public class AddressService {
         log.info("Creating new address: {}", request);
         Address address = addressMapper.toEntity(request);
         Address saved = addressRepository.save(address);
+        addressIdFilter.add(saved.getId());
+        addressAutocompleteIndex.put(autocompleteEntry(saved));
         log.info("Created address with ID: {}", saved.getId());
         return addressMapper.toDto(saved);
     }
 
+    /**
+     * Creates many addresses in a single transaction.
+     * <p>
+     * Addresses are persisted in chunks of {@code app.address.bulk.chunk-size}; each chunk
+     * is flushed as batched JDBC inserts and then cleared from the persistence context.
+     * The duration of every chunk is logged and recorded in the {@code address.bulk.chunk} timer.
+     * </p>
+     *
+     * @param requests the address request DTOs
+     * @return the IDs of the created addresses and the per-chunk timings
+     */
+    @Transactional
+    public BulkAddressResponse createAddresses(List<AddressRequest> requests) {
+        int chunkSize = addressProperties.getBulk().getChunkSize();
+        log.info("Creating {} addresses in chunks of {}", requests.size(), chunkSize);
+        Timer timer = meterRegistry.timer("address.bulk.chunk");
+        List<Long> ids = new ArrayList<>(requests.size());
+        List<Long> chunkDurations = new ArrayList<>();
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            long start = System.nanoTime();
+            List<Address> chunk = requests.subList(from, Math.min(from + chunkSize, requests.size())).stream()
+                    .map(addressMapper::toEntity)
+                    .toList();
+            addressRepository.saveAll(chunk).forEach(saved -> {
+                ids.add(saved.getId());
+                addressIdFilter.add(saved.getId());
+                addressAutocompleteIndex.put(autocompleteEntry(saved));
+            });
+            addressRepository.flush();
+            entityManager.clear();
+            long elapsed = System.nanoTime() - start;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            chunkDurations.add(TimeUnit.NANOSECONDS.toMillis(elapsed));
+            log.debug("Persisted chunk of {} addresses in {} ms", chunk.size(), chunkDurations.getLast());
+        }
+        log.info("Created {} addresses", ids.size());
+        return new BulkAddressResponse(ids, chunkDurations);
+    }
+
+    /**
+     * Builds the autocomplete index from the street and city of every address.
+     * <p>
+     * Runs once the application has started; afterwards the index is kept up to date
+     * by the create, update, patch and delete operations of this service.
+     * </p>
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAutocompleteIndex() {
+        long start = System.nanoTime();
+        int indexed = addressAutocompleteIndex.rebuild(() -> addressRepository.streamAutocompleteViews().map(view ->
+                new AddressAutocompleteIndex.Entry(view.getId(), view.getStreet(), view.getCity())));
+        log.info("Indexed {} addresses for autocompletion in {} ms", indexed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Loads the IDs of every address into the Bloom filter of existing IDs.
+     * <p>
+     * Runs once the application has started; until then the filter lets every lookup
+     * through. New IDs are added by the create operations of this service.
+     * </p>
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAddressIdFilter() {
+        long start = System.nanoTime();
+        try (Stream<Long> ids = addressRepository.streamAllIds()) {
+            long loaded = addressIdFilter.load(ids);
+            log.info("Loaded {} address IDs into the ID filter in {} ms", loaded,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
     /**
      * Retrieves an address by its ID.
+     * <p>
+     * The address is selected straight into the response DTO, without loading the entity.
+     * </p>
      *
      * @param id the ID of the address
      * @return the address response DTO
@@ -55,10 +176,61 @@ public class AddressService {
     @Transactional(readOnly = true)
     public AddressResponse getAddressById(Long id) {
         log.info("Retrieving address with ID: {}", id);
-        Address address = addressRepository.findById(id)
-                .orElseThrow(() -> new AddressNotFoundException("Address not found with id: " + id));
+        AddressResponse address = addressRepository.findResponseById(id)
+                .orElseThrow(() -> AddressNotFoundException.forId(id));
         log.info("Retrieved address: {}", address);
-        return addressMapper.toDto(address);
+        return address;
+    }
+
+    /**
+     * Retrieves many addresses by their IDs in one transaction.
+     * <p>
+     * The distinct IDs are resolved with IN queries of at most {@code app.address.lookup.chunk-size}
+     * IDs each. Addresses are returned in the order their IDs were first requested, and IDs
+     * without an address are reported instead of failing the whole lookup.
+     * </p>
+     *
+     * @param ids the IDs of the addresses
+     * @return the addresses found and the IDs that were not found
+     */
+    @Transactional(readOnly = true)
+    public AddressLookupResponse lookupAddresses(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        log.info("Looking up {} addresses", distinctIds.size());
+        int chunkSize = addressProperties.getLookup().getChunkSize();
+        Map<Long, AddressResponse> found = HashMap.newHashMap(distinctIds.size());
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            addressRepository.findResponsesByIdIn(distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size())))
+                    .forEach(address -> found.put(address.id(), address));
+        }
+        List<AddressResponse> addresses = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>(distinctIds.size() - found.size());
+        for (Long id : distinctIds) {
+            AddressResponse address = found.get(id);
+            if (address != null) {
+                addresses.add(address);
+            } else {
+                missing.add(id);
+            }
+        }
+        log.info("Found {} addresses, {} missing", addresses.size(), missing.size());
+        return new AddressLookupResponse(addresses, missing);
+    }
+
+    /**
+     * Retrieves the current version of an address.
+     * <p>
+     * Only the version column is selected, so the entity is neither loaded nor mapped.
+     * </p>
+     *
+     * @param id the ID of the address
+     * @return the version of the address
+     */
+    @Transactional(readOnly = true)
+    public Long getAddressVersion(Long id) {
+        log.debug("Retrieving version of address with ID: {}", id);
+        return addressRepository.findVersionById(id)
+                .orElseThrow(() -> AddressNotFoundException.forId(id));
     }
 
     /**
@@ -67,47 +239,312 @@ public class AddressService {
      * @param id      the ID of the address to update
      * @param request the address request DTO with updated data
      * @return the updated address response DTO
+     * @see #updateAddress(Long, AddressRequest, Long)
      */
     @Transactional
     public AddressResponse updateAddress(Long id, AddressRequest request) {
+        return updateAddress(id, request, null);
+    }
+
+    /**
+     * Updates an existing address if it still has the expected version.
+     * <p>
+     * The managed entity is modified in place, so only the changed columns are written
+     * and no UPDATE is issued when the values are unchanged. A concurrent update between
+     * loading and writing fails with an optimistic lock conflict.
+     * </p>
+     *
+     * @param id              the ID of the address to update
+     * @param request         the address request DTO with updated data
+     * @param expectedVersion the version the caller based its update on, or {@code null} to skip the check
+     * @return the updated address response DTO
+     * @throws PreconditionFailedException if the address no longer has the expected version
+     */
+    @Transactional
+    public AddressResponse updateAddress(Long id, AddressRequest request, Long expectedVersion) {
         log.info("Updating address with ID: {}", id);
+        Objects.requireNonNull(request, "Address request must not be null");
         Address address = addressRepository.findById(id)
-                .orElseThrow(() -> new AddressNotFoundException("Address not found with id: " + id));
-        Address updated = addressMapper.toEntity(request);
-        updated.setId(address.getId());
-        updated.setCreatedAt(address.getCreatedAt());
-        updated.setCreatedBy(address.getCreatedBy());
-        updated.setUser(address.getUser());
-        Address saved = addressRepository.save(updated);
-        log.info("Updated address with ID: {}", saved.getId());
-        return addressMapper.toDto(saved);
+                .orElseThrow(() -> AddressNotFoundException.forId(id));
+        checkVersion(address, expectedVersion, "update");
+        addressMapper.updateEntity(request, address);
+        addressResponseCache.invalidate(id);
+        addressAutocompleteIndex.put(autocompleteEntry(address));
+        // Flush so that the audit fields set by @PreUpdate and the new version are part of the response
+        flush(id, expectedVersion, "update");
+        log.info("Updated address with ID: {}", address.getId());
+        return addressMapper.toDto(address);
+    }
+
+    /**
+     * Partially updates an existing address.
+     * <p>
+     * Only the fields present in the patch are applied to the managed entity, so the
+     * resulting UPDATE touches only those columns.
+     * </p>
+     *
+     * @param id    the ID of the address to patch
+     * @param patch the address patch DTO with the fields to change
+     * @return the updated address response DTO
+     */
+    @Transactional
+    public AddressResponse patchAddress(Long id, AddressPatchRequest patch) {
+        log.info("Patching address with ID: {}", id);
+        Objects.requireNonNull(patch, "Address patch must not be null");
+        Address address = addressRepository.findById(id)
+                .orElseThrow(() -> AddressNotFoundException.forId(id));
+        addressMapper.patchEntity(patch, address);
+        addressResponseCache.invalidate(id);
+        addressAutocompleteIndex.put(autocompleteEntry(address));
+        addressRepository.flush();
+        log.info("Patched address with ID: {}", address.getId());
+        return addressMapper.toDto(address);
     }
 
     /**
      * Deletes an address by its ID.
      *
      * @param id the ID of the address to delete
+     * @see #deleteAddress(Long, Long)
      */
     @Transactional
     public void deleteAddress(Long id) {
+        deleteAddress(id, null);
+    }
+
+    /**
+     * Deletes an address by its ID if it still has the expected version.
+     * <p>
+     * The address is removed with a single DELETE statement and the affected row
+     * count decides whether it existed. Only when a versioned delete removes nothing
+     * is a second query run, to tell a missing address from a version mismatch.
+     * A tombstone is recorded for every deleted address so that the change feed can
+     * report the deletion.
+     * </p>
+     *
+     * @param id              the ID of the address to delete
+     * @param expectedVersion the version the caller based its delete on, or {@code null} to skip the check
+     * @throws PreconditionFailedException if the address no longer has the expected version
+     */
+    @Transactional
+    public void deleteAddress(Long id, Long expectedVersion) {
         log.info("Deleting address with ID: {}", id);
-        if (!addressRepository.existsById(id)) {
-            throw new AddressNotFoundException("Address not found with id: " + id);
+        int deleted = expectedVersion == null
+                ? addressRepository.deleteAddressById(id)
+                : addressRepository.deleteAddressByIdAndVersion(id, expectedVersion);
+        if (deleted == 0) {
+            if (expectedVersion != null && addressRepository.existsById(id)) {
+                throw conflict(id, "delete");
+            }
+            throw AddressNotFoundException.forId(id);
         }
+        addressTombstoneRepository.insertTombstone(id, Instant.now());
+        addressResponseCache.invalidate(id);
+        addressAutocompleteIndex.remove(id);
         log.info("Deleted address with ID: {}", id);
-        addressRepository.deleteById(id);
     }
 
     /**
-     * Retrieves all addresses.
+     * Retrieves all addresses, ordered by ID, as response DTOs selected without loading entities.
      *
      * @return a list of address response DTOs
      */
     @Transactional(readOnly = true)
     public List<AddressResponse> getAllAddresses() {
         log.info("Retrieving all addresses");
-        return addressRepository.findAll().stream()
-                .map(addressMapper::toDto)
+        return addressRepository.findAllResponses();
+    }
+
+    /**
+     * Retrieves a page of addresses using keyset pagination on the address ID.
+     * <p>
+     * One extra row is fetched to detect whether a further page exists, so the
+     * cost of each call depends only on the page size and not on the table size.
+     * </p>
+     *
+     * @param after the ID after which to start, or {@code null} for the first page
+     * @param limit the maximum number of addresses to return
+     * @return the page of address response DTOs with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AddressResponse> getAddressPage(Long after, int limit) {
+        log.info("Retrieving addresses after ID: {} with limit: {}", after, limit);
+        List<AddressResponse> addresses = addressRepository
+                .findResponsesByIdGreaterThan(CursorPage.startAfter(after), Limit.of(limit + 1));
+        return CursorPage.of(addresses, limit, AddressResponse::id);
+    }
+
+    /**
+     * Retrieves the addresses created, updated or deleted after the given cursor.
+     * <p>
+     * Changes are keyset-paginated on their time and address ID: the next page of updated
+     * addresses and the next page of tombstones are each read through the index on those
+     * columns and merged, so the cost depends on the page size rather than the table size.
+     * Only changes older than {@code app.address.changes.settle-delay} are returned, so a
+     * transaction still in flight cannot commit a change behind the returned cursor.
+     * </p>
+     *
+     * @param after the position of the last change already seen
+     * @param limit the maximum number of changes to return
+     * @return the page of changes, oldest first, with the cursor to continue from
+     */
+    @Transactional(readOnly = true)
+    public AddressChangePage getAddressChanges(ChangeCursor after, int limit) {
+        log.info("Retrieving address changes after: {} with limit: {}", after, limit);
+        Instant until = Instant.now().minus(addressProperties.getChanges().getSettleDelay());
+        Stream<AddressChange> upserted = addressRepository
+                .findResponsesChangedAfter(after.changedAt(), after.id(), until, Limit.of(limit + 1)).stream()
+                .map(address -> new AddressChange(AddressChange.Type.UPSERTED, address.id(), address.updatedAt(), address));
+        Stream<AddressChange> deleted = addressTombstoneRepository
+                .findDeletedAfter(after.changedAt(), after.id(), until, Limit.of(limit + 1)).stream()
+                .map(tombstone -> new AddressChange(AddressChange.Type.DELETED, tombstone.getAddressId(), tombstone.getDeletedAt(), null));
+        List<AddressChange> changes = Stream.concat(upserted, deleted)
+                .sorted(Comparator.comparing(AddressChange::changedAt).thenComparing(AddressChange::id))
+                .limit(limit + 1)
                 .toList();
+        boolean hasMore = changes.size() > limit;
+        List<AddressChange> content = hasMore ? changes.subList(0, limit) : changes;
+        ChangeCursor next = content.isEmpty() ? after : ChangeCursor.after(content.getLast());
+        return new AddressChangePage(content, next.encode(), hasMore);
+    }
+
+    /**
+     * Searches addresses by the given criteria using keyset pagination on the address ID.
+     * <p>
+     * The filters are combined into a specification that the indexes on the address
+     * columns can serve. As for {@link #getAddressPage(Long, int)}, one extra row is
+     * fetched to detect whether a further page exists.
+     * </p>
+     *
+     * @param criteria the search filters
+     * @param after    the ID after which to start, or {@code null} for the first page
+     * @param limit    the maximum number of addresses to return
+     * @return the page of matching address response DTOs with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AddressResponse> searchAddresses(AddressSearchCriteria criteria, Long after, int limit) {
+        log.info("Searching addresses matching: {} after ID: {} with limit: {}", criteria, after, limit);
+        Specification<Address> specification = AddressSpecifications.matching(criteria)
+                .and(AddressSpecifications.idGreaterThan(CursorPage.startAfter(after)));
+        List<AddressResponse> addresses = addressRepository.findResponses(specification, limit + 1);
+        return CursorPage.of(addresses, limit, AddressResponse::id);
+    }
+
+    /**
+     * Retrieves only the given fields of an address.
+     *
+     * @param id     the ID of the address
+     * @param fields the names of the {@link AddressResponse} fields to return, without duplicates
+     * @return the requested fields of the address, in the order they were requested
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAddressFields(Long id, List<String> fields) {
+        log.info("Retrieving fields {} of address with ID: {}", fields, id);
+        return addressRepository.findFields(fields, AddressSpecifications.hasId(id), 1).stream()
+                .findFirst()
+                .orElseThrow(() -> AddressNotFoundException.forId(id));
+    }
+
+    /**
+     * Searches addresses like {@link #searchAddresses(AddressSearchCriteria, Long, int)}, but
+     * selects and returns only the given fields.
+     * <p>
+     * The ID is always selected to build the next cursor, and dropped from the rows when it
+     * was not requested.
+     * </p>
+     *
+     * @param criteria the search filters
+     * @param after    the ID after which to start, or {@code null} for the first page
+     * @param limit    the maximum number of addresses to return
+     * @param fields   the names of the {@link AddressResponse} fields to return, without duplicates
+     * @return the page of matching addresses as field maps with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> searchAddressFields(AddressSearchCriteria criteria, Long after, int limit,
+                                                              List<String> fields) {
+        log.info("Searching fields {} of addresses matching: {} after ID: {} with limit: {}", fields, criteria, after, limit);
+        boolean idRequested = fields.contains("id");
+        List<String> selected = idRequested ? fields : Stream.concat(Stream.of("id"), fields.stream()).toList();
+        List<Map<String, Object>> rows = addressRepository.findFields(selected,
+                AddressSpecifications.matching(criteria).and(AddressSpecifications.idGreaterThan(CursorPage.startAfter(after))), limit + 1);
+        CursorPage<Map<String, Object>> page = CursorPage.of(rows, limit, row -> row.get("id"));
+        if (!idRequested) {
+            page.content().forEach(row -> row.remove("id"));
+        }
+        return page;
+    }
+
+    /**
+     * Streams every address, in ascending ID order, to the given consumer.
+     * <p>
+     * Addresses are read through a database cursor and the persistence context is
+     * cleared after each fetch-sized chunk, so memory use stays constant regardless
+     * of the number of rows. The exported addresses are not stored in the second-level
+     * cache, where they would push out the frequently read ones.
+     * </p>
+     *
+     * @param consumer the consumer receiving each address response DTO
+     * @return the number of exported addresses
+     */
+    @Transactional(readOnly = true)
+    public long exportAddresses(Consumer<AddressResponse> consumer) {
+        log.info("Exporting all addresses");
+        int clearInterval = Integer.parseInt(AddressRepository.STREAM_FETCH_SIZE);
+        long count = 0;
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        try (Stream<Address> addresses = addressRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Address> iterator = addresses.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(addressMapper.toDto(iterator.next()));
+                if (++count % clearInterval == 0) {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.USE);
+        }
+        log.info("Exported {} addresses", count);
+        return count;
+    }
+
+    /*
+     * Extracts the values of an address that are indexed for autocompletion.
+     */
+    private static AddressAutocompleteIndex.Entry autocompleteEntry(Address address) {
+        return new AddressAutocompleteIndex.Entry(address.getId(), address.getStreet(), address.getCity());
+    }
+
+    /*
+     * Fails with a PreconditionFailedException when the address does not have the expected version.
+     */
+    private void checkVersion(Address address, Long expectedVersion, String operation) {
+        if (expectedVersion != null && !expectedVersion.equals(address.getVersion())) {
+            throw conflict(address.getId(), operation);
+        }
+    }
+
+    /*
+     * Flushes pending changes. A conflict is reported as a failed precondition when the caller
+     * sent an expected version, and rethrown for the retry policy otherwise.
+     */
+    private void flush(Long id, Long expectedVersion, String operation) {
+        try {
+            addressRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            meterRegistry.counter("address.optimistic.lock.conflicts", "operation", operation).increment();
+            if (expectedVersion != null) {
+                throw new PreconditionFailedException("Address with id " + id + " was modified concurrently", e);
+            }
+            throw e;
+        }
+    }
+
+    /*
+     * Counts a version conflict and builds the exception reporting it.
+     */
+    private PreconditionFailedException conflict(Long id, String operation) {
+        meterRegistry.counter("address.optimistic.lock.conflicts", "operation", operation).increment();
+        log.info("Version mismatch on {} of address with ID: {}", operation, id);
+        return new PreconditionFailedException("Address with id " + id + " does not have the expected version");
     }
 }
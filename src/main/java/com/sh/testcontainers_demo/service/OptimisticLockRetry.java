@@ -0,0 +1,67 @@
+package com.sh.testcontainers_demo.service;
+
+import com.sh.testcontainers_demo.config.AddressProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Bounded retry policy for writes that fail on an optimistic lock conflict.
+ * <p>
+ * Each attempt must run in its own transaction, so the action should call a
+ * transactional service method rather than run inside one. The number of attempts
+ * and the linear backoff between them come from {@code app.address.retry}.
+ * Retries and exhausted retries are counted in the {@code address.optimistic.lock.retries}
+ * and {@code address.optimistic.lock.exhausted} counters.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OptimisticLockRetry {
+
+    private final AddressProperties addressProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Runs the action, retrying it when it fails on an optimistic lock conflict.
+     *
+     * @param operation the name of the operation, used for logging and metrics
+     * @param action    the action to run
+     * @param <T>       the result type of the action
+     * @return the result of the first successful attempt
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        AddressProperties.Retry retry = addressProperties.getRetry();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= retry.getMaxAttempts()) {
+                    meterRegistry.counter("address.optimistic.lock.exhausted", "operation", operation).increment();
+                    log.warn("Optimistic lock conflict on {} after {} attempts, giving up", operation, attempt);
+                    throw e;
+                }
+                meterRegistry.counter("address.optimistic.lock.retries", "operation", operation).increment();
+                log.debug("Optimistic lock conflict on {}, retrying (attempt {})", operation, attempt);
+                backoff(retry.getBackoff().toMillis() * attempt);
+            }
+        }
+    }
+
+    private static void backoff(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
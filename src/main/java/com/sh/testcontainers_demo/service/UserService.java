@@ -0,0 +1,304 @@
+package com.sh.testcontainers_demo.service;
+
+import com.sh.testcontainers_demo.cache.AddressAutocompleteIndex;
+import com.sh.testcontainers_demo.cache.AddressIdFilter;
+import com.sh.testcontainers_demo.cache.AddressResponseCache;
+import com.sh.testcontainers_demo.config.UserProperties;
+import com.sh.testcontainers_demo.dto.AddressRequest;
+import com.sh.testcontainers_demo.dto.AddressResponse;
+import com.sh.testcontainers_demo.dto.BulkUserUpsertResponse;
+import com.sh.testcontainers_demo.dto.CursorPage;
+import com.sh.testcontainers_demo.dto.UserRequest;
+import com.sh.testcontainers_demo.dto.UserResponse;
+import com.sh.testcontainers_demo.dto.UserUpsertRequest;
+import com.sh.testcontainers_demo.entity.Address;
+import com.sh.testcontainers_demo.entity.User;
+import com.sh.testcontainers_demo.entity.mapper.AddressMapper;
+import com.sh.testcontainers_demo.entity.mapper.UserMapper;
+import com.sh.testcontainers_demo.exception.UserNotFoundException;
+import com.sh.testcontainers_demo.repository.AddressRepository;
+import com.sh.testcontainers_demo.repository.AddressTombstoneRepository;
+import com.sh.testcontainers_demo.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Service class for managing User entities and the addresses they own.
+ * <p>
+ * Addresses are persisted and removed through the cascade from their user. Since those
+ * writes bypass the {@link AddressService}, this service keeps the address caches, the
+ * autocomplete index, the ID filter and the change feed tombstones up to date itself.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserService {
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final AddressRepository addressRepository;
+    private final AddressMapper addressMapper;
+    private final AddressTombstoneRepository addressTombstoneRepository;
+    private final AddressResponseCache addressResponseCache;
+    private final AddressAutocompleteIndex addressAutocompleteIndex;
+    private final AddressIdFilter addressIdFilter;
+    private final UserProperties userProperties;
+
+    /**
+     * Creates a new user together with its addresses.
+     * <p>
+     * The addresses are inserted through the cascade with {@code user_id} already set,
+     * since {@code Address.user} owns the association: one INSERT for the user and one
+     * batch of INSERTs for the addresses, without follow-up UPDATEs.
+     * </p>
+     *
+     * @param request the user request DTO
+     * @return the created user response DTO
+     */
+    @Transactional
+    public UserResponse createUser(UserRequest request) {
+        log.info("Creating new user with {} addresses", request.address().size());
+        User saved = userRepository.save(userMapper.toEntity(request));
+        saved.getAddress().forEach(this::addressSaved);
+        log.info("Created user with ID: {}", saved.getId());
+        return userMapper.toDto(saved);
+    }
+
+    /**
+     * Retrieves a user by its ID.
+     * <p>
+     * With addresses, the user and its addresses are loaded in one query through the
+     * {@link User#WITH_ADDRESS} entity graph; without, the address collection is never loaded.
+     * </p>
+     *
+     * @param id          the ID of the user
+     * @param withAddress whether to include the addresses of the user
+     * @return the user response DTO, with {@code address} set to {@code null} unless requested
+     * @throws UserNotFoundException if no user has the given ID
+     */
+    @Transactional(readOnly = true)
+    public UserResponse getUserById(Long id, boolean withAddress) {
+        log.info("Retrieving user with ID: {} with addresses: {}", id, withAddress);
+        if (withAddress) {
+            return userMapper.toDto(userRepository.findWithAddressById(id).orElseThrow(() -> notFound(id)));
+        }
+        return userMapper.toDtoWithoutAddress(findUser(id));
+    }
+
+    /**
+     * Retrieves a page of users using keyset pagination on the user ID.
+     * <p>
+     * One extra row is fetched to detect whether a further page exists. With addresses,
+     * the page of user IDs is selected first and the users are then fetched with their
+     * addresses in one query, since a LIMIT on the joined rows would cut the page at the
+     * wrong place.
+     * </p>
+     *
+     * @param after       the ID after which to start, or {@code null} for the first page
+     * @param limit       the maximum number of users to return
+     * @param withAddress whether to include the addresses of the users
+     * @return the page of user response DTOs with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> getUserPage(Long after, int limit, boolean withAddress) {
+        log.info("Retrieving users after ID: {} with limit: {} with addresses: {}", after, limit, withAddress);
+        long cursor = CursorPage.startAfter(after);
+        if (withAddress) {
+            CursorPage<Long> ids = CursorPage.of(userRepository.findIdsByIdGreaterThan(cursor, Limit.of(limit + 1)),
+                    limit, Function.identity());
+            return ids.withContent(ids.content().isEmpty() ? List.of()
+                    : userRepository.findWithAddressByIdInOrderByIdAsc(ids.content()).stream().map(userMapper::toDto).toList());
+        }
+        CursorPage<User> users = CursorPage.of(userRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(limit + 1)),
+                limit, User::getId);
+        return users.withContent(users.content().stream().map(userMapper::toDtoWithoutAddress).toList());
+    }
+
+    /**
+     * Retrieves a page of the addresses of a user using keyset pagination on the address ID.
+     * <p>
+     * Only the page is read, straight into response DTOs, whatever the number of addresses
+     * the user owns. The existence of the user is only checked when the page is empty.
+     * </p>
+     *
+     * @param id    the ID of the user
+     * @param after the address ID after which to start, or {@code null} for the first page
+     * @param limit the maximum number of addresses to return
+     * @return the page of address response DTOs with the cursor for the next page
+     * @throws UserNotFoundException if no user has the given ID
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AddressResponse> getUserAddressPage(Long id, Long after, int limit) {
+        log.info("Retrieving addresses of user with ID: {} after ID: {} with limit: {}", id, after, limit);
+        List<AddressResponse> addresses = addressRepository
+                .findResponsesByUserIdAndIdGreaterThan(id, CursorPage.startAfter(after), Limit.of(limit + 1));
+        if (addresses.isEmpty() && !userRepository.existsById(id)) {
+            throw notFound(id);
+        }
+        return CursorPage.of(addresses, limit, AddressResponse::id);
+    }
+
+    /**
+     * Replaces the name, email and addresses of an existing user.
+     * <p>
+     * The requested addresses are matched to the current ones by position: matched
+     * addresses are updated in place and keep their IDs, surplus addresses are deleted
+     * and additional ones are inserted. Unchanged values cause no UPDATE.
+     * </p>
+     *
+     * @param id      the ID of the user to update
+     * @param request the user request DTO with the new data
+     * @return the updated user response DTO
+     * @throws UserNotFoundException if no user has the given ID
+     */
+    @Transactional
+    public UserResponse updateUser(Long id, UserRequest request) {
+        log.info("Updating user with ID: {}", id);
+        Objects.requireNonNull(request, "User request must not be null");
+        User user = userRepository.findWithAddressById(id).orElseThrow(() -> notFound(id));
+        userMapper.updateEntity(request, user);
+        List<Address> addresses = user.getAddress();
+        List<AddressRequest> requested = request.address();
+        int kept = Math.min(addresses.size(), requested.size());
+        for (int i = 0; i < kept; i++) {
+            addressMapper.updateEntity(requested.get(i), addresses.get(i));
+        }
+        List<Address> removed = new ArrayList<>(addresses.subList(kept, addresses.size()));
+        if (!removed.isEmpty()) {
+            List<Long> removedIds = removed.stream().map(Address::getId).toList();
+            addressTombstoneRepository.insertTombstones(removedIds, Instant.now());
+            addresses.removeAll(removed);
+            removedIds.forEach(this::addressDeleted);
+        }
+        requested.subList(kept, requested.size()).forEach(addressRequest -> {
+            Address address = addressMapper.toEntity(addressRequest);
+            address.setUser(user);
+            addresses.add(address);
+        });
+        // Flush so that new addresses get their IDs and the audit fields set by @PreUpdate are part of the response
+        userRepository.flush();
+        addresses.forEach(this::addressSaved);
+        log.info("Updated user with ID: {}", id);
+        return userMapper.toDto(user);
+    }
+
+    /**
+     * Inserts or updates a user identified by its email with a single statement.
+     * <p>
+     * Unlike looking the user up before saving it, there is no window in which a
+     * concurrent request can insert the same email on PostgreSQL; see
+     * {@link UserRepository#upsertByEmail(List)} for H2.
+     * </p>
+     *
+     * @param request the user upsert request DTO
+     * @return {@code true} if the user was inserted or changed, {@code false} if it was already up to date
+     */
+    @Transactional
+    public boolean upsertUser(UserUpsertRequest request) {
+        log.info("Upserting user by email");
+        return userRepository.upsertByEmail(List.of(userMapper.toUpsertEntity(request))) > 0;
+    }
+
+    /**
+     * Inserts or updates many users identified by their email.
+     * <p>
+     * Users are written in chunks of {@code app.user.bulk.chunk-size}, one statement per
+     * chunk. When an email occurs more than once, the last occurrence wins, as a single
+     * statement cannot write the same row twice.
+     * </p>
+     *
+     * @param requests the user upsert request DTOs
+     * @return the number of distinct users received and of users inserted or changed
+     */
+    @Transactional
+    public BulkUserUpsertResponse upsertUsers(List<UserUpsertRequest> requests) {
+        Map<String, User> byEmail = LinkedHashMap.newLinkedHashMap(requests.size());
+        requests.forEach(request -> byEmail.put(request.email(), userMapper.toUpsertEntity(request)));
+        List<User> users = List.copyOf(byEmail.values());
+        int chunkSize = userProperties.getBulk().getChunkSize();
+        log.info("Upserting {} users in chunks of {}", users.size(), chunkSize);
+        int written = 0;
+        for (int from = 0; from < users.size(); from += chunkSize) {
+            written += userRepository.upsertByEmail(users.subList(from, Math.min(from + chunkSize, users.size())));
+        }
+        log.info("Upserted {} users, {} inserted or changed", users.size(), written);
+        return new BulkUserUpsertResponse(users.size(), written);
+    }
+
+    /**
+     * Deletes a user together with its addresses.
+     * <p>
+     * Neither the user nor its addresses are loaded: the user row is locked, the address IDs
+     * are read from the index on the user ID, tombstones are recorded for those IDs with a
+     * single INSERT ... SELECT, then those addresses and the user are removed with one
+     * set-based DELETE each. The statement count does not grow with the number of addresses.
+     * </p>
+     * <p>
+     * The lock holds back a concurrent update of the user that would add an address between
+     * reading the IDs and the deletes. Deleting by the IDs read, rather than by user, ensures
+     * that every deleted address is also evicted from the caches: an address the lock did not
+     * hold back makes the user DELETE fail on its foreign key and rolls the deletion back.
+     * </p>
+     *
+     * @param id the ID of the user to delete
+     * @throws UserNotFoundException if no user has the given ID
+     */
+    @Transactional
+    public void deleteUser(Long id) {
+        log.info("Deleting user with ID: {}", id);
+        userRepository.lockById(id).orElseThrow(() -> notFound(id));
+        List<Long> addressIds = addressRepository.findIdsByUserId(id);
+        if (!addressIds.isEmpty()) {
+            addressTombstoneRepository.insertTombstones(addressIds, Instant.now());
+            addressRepository.deleteAddressesByIdIn(addressIds);
+        }
+        userRepository.deleteUserById(id);
+        addressIds.forEach(this::addressDeleted);
+        log.info("Deleted user with ID: {} and {} addresses", id, addressIds.size());
+    }
+
+    /*
+     * Loads a user without its addresses.
+     */
+    private User findUser(Long id) {
+        return userRepository.findById(id).orElseThrow(() -> notFound(id));
+    }
+
+    /*
+     * Builds the exception reported for an unknown user ID.
+     */
+    private static UserNotFoundException notFound(Long id) {
+        return new UserNotFoundException("User not found with id: " + id);
+    }
+
+    /*
+     * Brings the address caches and indexes up to date with an inserted or updated address.
+     */
+    private void addressSaved(Address address) {
+        addressIdFilter.add(address.getId());
+        addressResponseCache.invalidate(address.getId());
+        addressAutocompleteIndex.put(new AddressAutocompleteIndex.Entry(address.getId(), address.getStreet(), address.getCity()));
+    }
+
+    /*
+     * Removes a deleted address from the address caches and indexes.
+     */
+    private void addressDeleted(Long id) {
+        addressResponseCache.invalidate(id);
+        addressAutocompleteIndex.remove(id);
+    }
+}
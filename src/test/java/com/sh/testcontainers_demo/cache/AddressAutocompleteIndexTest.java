@@ -0,0 +1,226 @@
+package com.sh.testcontainers_demo.cache;
+
+import com.sh.testcontainers_demo.cache.AddressAutocompleteIndex.Entry;
+import com.sh.testcontainers_demo.cache.AddressAutocompleteIndex.Field;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Unit tests for AddressAutocompleteIndex.
+ * <p>
+ * This test class verifies prefix suggestions for streets and cities, and that the
+ * index follows updates and deletes of addresses.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+class AddressAutocompleteIndexTest {
+
+    private final AddressAutocompleteIndex index = new AddressAutocompleteIndex();
+
+    /*
+     * Test that suggestions match the prefix ignoring case, in alphabetical order and up to the limit.
+     */
+    @Test
+    @DisplayName("Test Suggest - Prefix Match")
+    void testSuggest_PrefixMatch() {
+        log.info("Running testSuggest_PrefixMatch");
+        index.rebuild(() -> Stream.of(
+                new Entry(1L, "Main Street", "Springfield"),
+                new Entry(2L, "Maple Avenue", "Spring Valley"),
+                new Entry(3L, "Market Square", "Boston"),
+                new Entry(4L, "Mall Road", "Springfield")));
+        assertThat(index.suggest(Field.STREET, "ma", 10))
+                .containsExactly("Main Street", "Mall Road", "Maple Avenue", "Market Square");
+        assertThat(index.suggest(Field.STREET, "MAP", 10)).containsExactly("Maple Avenue");
+        assertThat(index.suggest(Field.STREET, "ma", 2)).containsExactly("Main Street", "Mall Road");
+        assertThat(index.suggest(Field.CITY, "spring", 10)).containsExactly("Spring Valley", "Springfield");
+        assertThat(index.suggest(Field.CITY, "springfieldx", 10)).isEmpty();
+        assertThat(index.suggest(Field.CITY, "x", 10)).isEmpty();
+        log.info("Test testSuggest_PrefixMatch passed");
+    }
+
+    /*
+     * Test that updating an address replaces its values and that shared values survive until the last address holding them is removed.
+     */
+    @Test
+    @DisplayName("Test Put And Remove")
+    void testPutAndRemove() {
+        log.info("Running testPutAndRemove");
+        index.put(new Entry(1L, "Main Street", "Springfield"));
+        index.put(new Entry(2L, "Main Street", "Shelbyville"));
+        index.put(new Entry(1L, "Elm Street", "Springfield"));
+        assertThat(index.suggest(Field.STREET, "", 10)).containsExactly("Elm Street", "Main Street");
+        index.remove(2L);
+        assertThat(index.suggest(Field.STREET, "m", 10)).isEmpty();
+        assertThat(index.suggest(Field.CITY, "s", 10)).containsExactly("Springfield");
+        index.remove(1L);
+        index.remove(1L);
+        assertThat(index.suggest(Field.CITY, "", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+        log.info("Test testPutAndRemove passed");
+    }
+
+    /*
+     * Test that values differing only in case are suggested with the same spelling whatever
+     * the order they were written in, and with a remaining spelling once the others are removed.
+     */
+    @Test
+    @DisplayName("Test Suggest - Spelling Of Remaining Addresses")
+    void testSuggest_SpellingOfRemainingAddresses() {
+        log.info("Running testSuggest_SpellingOfRemainingAddresses");
+        index.put(new Entry(1L, "Main St", "Springfield"));
+        index.put(new Entry(2L, "MAIN ST", "Springfield"));
+        assertThat(index.suggest(Field.STREET, "main", 10)).containsExactly("MAIN ST");
+        index.remove(2L);
+        assertThat(index.suggest(Field.STREET, "main", 10)).containsExactly("Main St");
+        index.put(new Entry(2L, "MAIN ST", "Springfield"));
+        index.remove(1L);
+        assertThat(index.suggest(Field.STREET, "main", 10)).containsExactly("MAIN ST");
+        log.info("Test testSuggest_SpellingOfRemainingAddresses passed");
+    }
+
+    /*
+     * Test changes applied while the index is rebuilt from entries read before them.
+     * Verifies that suggestions are served from the current index until the new one is
+     * complete, and that the changes are not lost by the swap.
+     */
+    @Test
+    @DisplayName("Test Rebuild - Concurrent Changes Kept")
+    void testRebuild_ConcurrentChangesKept() {
+        log.info("Running testRebuild_ConcurrentChangesKept");
+        index.put(new Entry(1L, "Old Street", "City"));
+        int indexed = index.rebuild(() -> Stream.of(
+                        new Entry(2L, "Second Street", "City"),
+                        new Entry(3L, "Third Street", "City"))
+                .peek(entry -> {
+                    if (entry.id() == 2L) {
+                        assertThat(index.suggest(Field.STREET, "", 10)).containsExactly("Old Street");
+                        index.put(new Entry(4L, "Fourth Street", "City"));
+                        index.remove(3L);
+                    }
+                }));
+        assertThat(index.suggest(Field.STREET, "", 10)).containsExactly("Fourth Street", "Second Street");
+        assertThat(indexed).isEqualTo(2);
+        log.info("Test testRebuild_ConcurrentChangesKept passed");
+    }
+
+    /*
+     * Test that a rebuild failing while the entries are read keeps the current index.
+     */
+    @Test
+    @DisplayName("Test Rebuild - Failure Keeps Index")
+    void testRebuild_FailureKeepsIndex() {
+        log.info("Running testRebuild_FailureKeepsIndex");
+        index.put(new Entry(1L, "Old Street", "City"));
+        Throwable failure = catchThrowable(() -> index.rebuild(() -> Stream.of(new Entry(2L, "New Street", "City"))
+                .peek(entry -> {
+                    throw new IllegalStateException("Read failed");
+                })));
+        assertThat(failure).isInstanceOf(IllegalStateException.class);
+        assertThat(index.suggest(Field.STREET, "", 10)).containsExactly("Old Street");
+        assertThat(index.size()).isEqualTo(1);
+        log.info("Test testRebuild_FailureKeepsIndex passed");
+    }
+
+    /*
+     * Test that changes made inside a transaction only become visible after commit.
+     */
+    @Test
+    @DisplayName("Test Put - Applied After Commit")
+    void testPut_AppliedAfterCommit() {
+        log.info("Running testPut_AppliedAfterCommit");
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            index.put(new Entry(1L, "Main Street", "Springfield"));
+            assertThat(index.suggest(Field.STREET, "main", 10)).isEmpty();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(index.suggest(Field.STREET, "main", 10)).containsExactly("Main Street");
+        log.info("Test testPut_AppliedAfterCommit passed");
+    }
+
+    /*
+     * Test random inserts, updates and removals against a sorted map of value counts.
+     * Verifies that the radix tree splits and merges its nodes without losing values.
+     */
+    @Test
+    @DisplayName("Test Suggest - Matches Reference")
+    void testSuggest_MatchesReference() {
+        log.info("Running testSuggest_MatchesReference");
+        Random random = new Random(42);
+        Map<Long, String> streets = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                streets.remove(id);
+            } else {
+                String street = randomWord(random);
+                index.put(new Entry(id, street, "City"));
+                streets.put(id, street);
+            }
+            if (i % 50 == 0) {
+                String prefix = randomWord(random).substring(0, random.nextInt(3));
+                assertThat(index.suggest(Field.STREET, prefix, 20))
+                        .map(street -> street.toLowerCase(Locale.ROOT))
+                        .isEqualTo(expected(streets, prefix, 20));
+            }
+        }
+        assertThat(index.size()).isEqualTo(streets.size());
+        log.info("Test testSuggest_MatchesReference passed");
+    }
+
+    /*
+     * Test resolving fields by their case-insensitive name.
+     */
+    @Test
+    @DisplayName("Test Field Of")
+    void testFieldOf() {
+        log.info("Running testFieldOf");
+        assertThat(Field.of("street")).contains(Field.STREET);
+        assertThat(Field.of("CITY")).contains(Field.CITY);
+        assertThat(Field.of("country")).isEmpty();
+        log.info("Test testFieldOf passed");
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 2 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append("abAB".charAt(random.nextInt(4)));
+        }
+        return word.toString();
+    }
+
+    /*
+     * Returns the distinct lower-cased streets starting with the prefix, in alphabetical order.
+     */
+    private static List<String> expected(Map<Long, String> streets, String prefix, int limit) {
+        return streets.values().stream()
+                .map(street -> street.toLowerCase(Locale.ROOT))
+                .filter(street -> street.startsWith(prefix.toLowerCase(Locale.ROOT)))
+                .distinct()
+                .sorted()
+                .limit(limit)
+                .toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.sh.testcontainers_demo.cache;
+
+import com.sh.testcontainers_demo.config.AddressProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AddressIdFilter.
+ * <p>
+ * This test class verifies that the filter never rejects a known ID, rejects most
+ * unknown IDs once loaded, and lets everything through until then or when disabled.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+class AddressIdFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /*
+     * Test that loaded and added IDs are always reported as possibly present, and unknown IDs
+     * are rejected at about the configured false positive rate.
+     */
+    @Test
+    @DisplayName("Test Might Contain - Loaded")
+    void testMightContain_Loaded() {
+        log.info("Running testMightContain_Loaded");
+        AddressIdFilter filter = filter(true);
+        assertThat(filter.load(LongStream.rangeClosed(1, 10_000).boxed())).isEqualTo(10_000);
+        filter.add(20_000L);
+        assertThat(LongStream.rangeClosed(1, 10_000).allMatch(filter::mightContain)).isTrue();
+        assertThat(filter.mightContain(20_000L)).isTrue();
+        long falsePositives = LongStream.rangeClosed(100_001, 200_000).filter(filter::mightContain).count();
+        assertThat(falsePositives).isLessThan(2_000);
+        assertThat(meterRegistry.counter("address.id.filter.rejected").count()).isEqualTo(100_000 - falsePositives);
+        log.info("Test testMightContain_Loaded passed");
+    }
+
+    /*
+     * Test that every ID passes before the filter is loaded.
+     */
+    @Test
+    @DisplayName("Test Might Contain - Not Loaded")
+    void testMightContain_NotLoaded() {
+        log.info("Running testMightContain_NotLoaded");
+        AddressIdFilter filter = filter(true);
+        filter.add(1L);
+        assertThat(LongStream.rangeClosed(1, 1_000).allMatch(filter::mightContain)).isTrue();
+        log.info("Test testMightContain_NotLoaded passed");
+    }
+
+    /*
+     * Test that a disabled filter lets every ID pass even after loading.
+     */
+    @Test
+    @DisplayName("Test Might Contain - Disabled")
+    void testMightContain_Disabled() {
+        log.info("Running testMightContain_Disabled");
+        AddressIdFilter filter = filter(false);
+        assertThat(filter.load(Stream.of(1L))).isZero();
+        assertThat(LongStream.rangeClosed(1, 1_000).allMatch(filter::mightContain)).isTrue();
+        log.info("Test testMightContain_Disabled passed");
+    }
+
+    private AddressIdFilter filter(boolean enabled) {
+        AddressProperties properties = new AddressProperties();
+        properties.getIdFilter().setEnabled(enabled);
+        properties.getIdFilter().setExpectedIds(10_000);
+        properties.getIdFilter().setFalsePositiveRate(0.01);
+        return new AddressIdFilter(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,168 @@
+package com.sh.testcontainers_demo.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sh.testcontainers_demo.config.ResponseCacheProperties;
+import com.sh.testcontainers_demo.dto.AddressResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AddressResponseCache.
+ * <p>
+ * This test class verifies caching of serialized address responses in direct memory,
+ * their invalidation and the pass-through behaviour when the cache is disabled.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+class AddressResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AddressResponse response = new AddressResponse(1L, "Street", "City", "State", "12345", "Country", null, null, "creator", "modifier", 3L);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, AddressResponse> loader = id -> {
+        loads.incrementAndGet();
+        return response;
+    };
+
+    private AddressResponseCache cache(boolean enabled) {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setEnabled(enabled);
+        properties.setMaximumSize(DataSize.ofKilobytes(64));
+        return new AddressResponseCache(objectMapper, properties, new SimpleMeterRegistry());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String json(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Test that a cached response is held off-heap and reused without reloading.
+     */
+    @Test
+    @DisplayName("Test Get - Cache Hit")
+    void testGet_CacheHit() throws Exception {
+        log.info("Running testGet_CacheHit");
+        AddressResponseCache cache = cache(true);
+        AddressResponseCache.Entry first = cache.get(1L, loader);
+        AddressResponseCache.Entry second = cache.get(1L, loader);
+        assertThat(loads).hasValue(1);
+        assertThat(first.json().isDirect()).isTrue();
+        assertThat(first.json().isReadOnly()).isTrue();
+        assertThat(first.version()).isEqualTo(response.version());
+        assertThat(json(first.json())).isEqualTo(objectMapper.writeValueAsString(response));
+        assertThat(json(second.json())).isEqualTo(json(first.json()));
+        log.info("Test testGet_CacheHit passed");
+    }
+
+    /*
+     * Test that an invalidated response is loaded again.
+     */
+    @Test
+    @DisplayName("Test Invalidate")
+    void testInvalidate() {
+        log.info("Running testInvalidate");
+        AddressResponseCache cache = cache(true);
+        cache.get(1L, loader);
+        cache.invalidate(1L);
+        cache.get(1L, loader);
+        assertThat(loads).hasValue(2);
+        log.info("Test testInvalidate passed");
+    }
+
+    /*
+     * Test that inside a transaction the response is evicted again when the transaction completes.
+     */
+    @Test
+    @DisplayName("Test Invalidate - After Transaction Completion")
+    void testInvalidate_AfterTransactionCompletion() {
+        log.info("Running testInvalidate_AfterTransactionCompletion");
+        AddressResponseCache cache = cache(true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(1L);
+            // A concurrent read caches the state before the write is committed
+            cache.get(1L, loader);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        cache.get(1L, loader);
+        assertThat(loads).hasValue(2);
+        log.info("Test testInvalidate_AfterTransactionCompletion passed");
+    }
+
+    /*
+     * Test that an invalidation during a load is not undone by the load.
+     * Verifies that the invalidation waits for the load and removes the loaded response.
+     */
+    @Test
+    @DisplayName("Test Invalidate - During Load")
+    void testInvalidate_DuringLoad() throws Exception {
+        log.info("Running testInvalidate_DuringLoad");
+        AddressResponseCache cache = cache(true);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread reader = new Thread(() -> cache.get(1L, id -> {
+            loading.countDown();
+            awaitQuietly(release);
+            return loader.apply(id);
+        }));
+        reader.start();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        // The writer commits and invalidates while the reader still holds the old state
+        Thread writer = new Thread(() -> cache.invalidate(1L));
+        writer.start();
+        while (writer.getState() == Thread.State.NEW || writer.getState() == Thread.State.RUNNABLE) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        reader.join(5000);
+        writer.join(5000);
+        cache.get(1L, loader);
+        assertThat(loads).hasValue(2);
+        log.info("Test testInvalidate_DuringLoad passed");
+    }
+
+    /*
+     * Test that a disabled cache serializes on every call.
+     */
+    @Test
+    @DisplayName("Test Get - Disabled")
+    void testGet_Disabled() {
+        log.info("Running testGet_Disabled");
+        AddressResponseCache cache = cache(false);
+        AddressResponseCache.Entry first = cache.get(1L, loader);
+        cache.get(1L, loader);
+        cache.invalidate(1L);
+        assertThat(loads).hasValue(2);
+        assertThat(first.json().isDirect()).isFalse();
+        log.info("Test testGet_Disabled passed");
+    }
+}
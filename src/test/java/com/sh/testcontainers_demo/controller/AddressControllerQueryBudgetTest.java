@@ -0,0 +1,364 @@
+package com.sh.testcontainers_demo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sh.testcontainers_demo.dto.AddressRequest;
+import com.sh.testcontainers_demo.entity.Address;
+import com.sh.testcontainers_demo.repository.AddressRepository;
+import com.sh.testcontainers_demo.repository.AddressTombstoneRepository;
+import com.sh.testcontainers_demo.service.AddressService;
+import com.sh.testcontainers_demo.support.QueryBudget;
+import com.sh.testcontainers_demo.support.SqlStatementCounter;
+import com.sh.testcontainers_demo.support.SqlStatementCounting;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query budget tests for the AddressController endpoints.
+ * <p>
+ * Each test calls one endpoint against the database with the caches disabled and fails
+ * when it executes more SQL statements than its {@link QueryBudget} allows. Budgets do
+ * not depend on the number of stored addresses.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@SqlStatementCounting
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "app.cache.second-level.enabled=false",
+        "app.cache.response.enabled=false",
+        "app.address.changes.settle-delay=0s",
+        "app.address.id-filter.enabled=true"
+})
+class AddressControllerQueryBudgetTest {
+
+    private static final int ADDRESSES = 120;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private AddressTombstoneRepository addressTombstoneRepository;
+
+    @Autowired
+    private AddressService addressService;
+
+    private Long id;
+
+    /*
+     * Store enough addresses to span several pages and batches, and index them for
+     * autocompletion and the ID filter.
+     */
+    @BeforeEach
+    void setUp() {
+        List<Address> addresses = addressRepository.saveAll(IntStream.range(0, ADDRESSES)
+                .<Address>mapToObj(i -> Address.builder().street(i + " St").city("City").state("ST").zipCode("00000").country("Country").build())
+                .toList());
+        id = addresses.getFirst().getId();
+        addressService.buildAutocompleteIndex();
+        addressService.loadAddressIdFilter();
+    }
+
+    /*
+     * Remove the stored addresses and tombstones.
+     */
+    @AfterEach
+    void tearDown() {
+        addressRepository.deleteAllInBatch();
+        addressTombstoneRepository.deleteAllInBatch();
+    }
+
+    /*
+     * Test creating an address with one INSERT, after the SELECT of the next block of IDs.
+     */
+    @Test
+    @QueryBudget(select = 1, insert = 1)
+    @DisplayName("Query Budget - Create Address")
+    void testCreateAddress() throws Exception {
+        log.info("Running testCreateAddress");
+        mockMvc.perform(post("/addresses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(addressRequest("Street"))))
+                .andExpect(status().isCreated());
+        log.info("Test testCreateAddress passed");
+    }
+
+    /*
+     * Test creating addresses in bulk with one batched INSERT per chunk.
+     */
+    @Test
+    @QueryBudget(select = 3, insert = 3)
+    @DisplayName("Query Budget - Create Addresses")
+    void testCreateAddresses() throws Exception {
+        log.info("Running testCreateAddresses");
+        List<AddressRequest> requests = IntStream.range(0, ADDRESSES).mapToObj(i -> addressRequest(i + " Street")).toList();
+        mockMvc.perform(post("/addresses/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isCreated());
+        log.info("Test testCreateAddresses passed");
+    }
+
+    /*
+     * Test reading an address with a single SELECT.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Query Budget - Get Address By ID")
+    void testGetAddressById() throws Exception {
+        log.info("Running testGetAddressById");
+        mockMvc.perform(get("/addresses/" + id))
+                .andExpect(status().isOk());
+        log.info("Test testGetAddressById passed");
+    }
+
+    /*
+     * Test answering a conditional read with a single SELECT of the version.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Query Budget - Get Address By ID Not Modified")
+    void testGetAddressById_NotModified() throws Exception {
+        log.info("Running testGetAddressById_NotModified");
+        mockMvc.perform(get("/addresses/" + id).header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotModified());
+        log.info("Test testGetAddressById_NotModified passed");
+    }
+
+    /*
+     * Test that an ID the ID filter has never seen is rejected without any query.
+     */
+    @Test
+    @QueryBudget
+    @DisplayName("Query Budget - Get Unknown Address By ID")
+    void testGetUnknownAddressById() throws Exception {
+        log.info("Running testGetUnknownAddressById");
+        mockMvc.perform(get("/addresses/" + (id + 1_000_000)))
+                .andExpect(status().isNotFound());
+        log.info("Test testGetUnknownAddressById passed");
+    }
+
+    /*
+     * Test updating an address with one SELECT and one UPDATE.
+     */
+    @Test
+    @QueryBudget(select = 1, update = 1)
+    @DisplayName("Query Budget - Update Address")
+    void testUpdateAddress() throws Exception {
+        log.info("Running testUpdateAddress");
+        mockMvc.perform(put("/addresses/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(addressRequest("New Street"))))
+                .andExpect(status().isOk());
+        log.info("Test testUpdateAddress passed");
+    }
+
+    /*
+     * Test a conditional update of an address with one SELECT and one UPDATE.
+     */
+    @Test
+    @QueryBudget(select = 1, update = 1)
+    @DisplayName("Query Budget - Update Address If-Match")
+    void testUpdateAddress_IfMatch() throws Exception {
+        log.info("Running testUpdateAddress_IfMatch");
+        mockMvc.perform(put("/addresses/" + id)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(addressRequest("New Street"))))
+                .andExpect(status().isOk());
+        log.info("Test testUpdateAddress_IfMatch passed");
+    }
+
+    /*
+     * Test patching an address with one SELECT and one UPDATE.
+     */
+    @Test
+    @QueryBudget(select = 1, update = 1)
+    @DisplayName("Query Budget - Patch Address")
+    void testPatchAddress() throws Exception {
+        log.info("Running testPatchAddress");
+        mockMvc.perform(patch("/addresses/" + id)
+                        .contentType(AddressController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"street\":\"Patched Street\"}"))
+                .andExpect(status().isOk());
+        log.info("Test testPatchAddress passed");
+    }
+
+    /*
+     * Test deleting an address with one DELETE returning its owner, after recording its tombstone.
+     */
+    @Test
+    @QueryBudget(insert = 1, delete = 1)
+    @DisplayName("Query Budget - Delete Address")
+    void testDeleteAddress() throws Exception {
+        log.info("Running testDeleteAddress");
+        mockMvc.perform(delete("/addresses/" + id))
+                .andExpect(status().isNoContent());
+        log.info("Test testDeleteAddress passed");
+    }
+
+    /*
+     * Test a conditional delete of an address with one DELETE, after recording its tombstone.
+     */
+    @Test
+    @QueryBudget(insert = 1, delete = 1)
+    @DisplayName("Query Budget - Delete Address If-Match")
+    void testDeleteAddress_IfMatch() throws Exception {
+        log.info("Running testDeleteAddress_IfMatch");
+        mockMvc.perform(delete("/addresses/" + id).header("If-Match", "\"0\""))
+                .andExpect(status().isNoContent());
+        log.info("Test testDeleteAddress_IfMatch passed");
+    }
+
+    /*
+     * Test reading a page of addresses with a single SELECT, whatever the page size.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Query Budget - Get Address Page")
+    void testGetAllAddresses() throws Exception {
+        log.info("Running testGetAllAddresses");
+        mockMvc.perform(get("/addresses").param("limit", String.valueOf(ADDRESSES)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(ADDRESSES));
+        log.info("Test testGetAllAddresses passed");
+    }
+
+    /*
+     * Test reading a page of changes with one SELECT of the updated addresses and one of the tombstones.
+     */
+    @Test
+    @QueryBudget(select = 2)
+    @DisplayName("Query Budget - Get Address Changes")
+    void testGetAddressChanges() throws Exception {
+        log.info("Running testGetAddressChanges");
+        addressService.deleteAddress(id);
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/addresses/changes").param("since", "2000-01-01T00:00:00Z").param("limit", "200"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(ADDRESSES))
+                .andExpect(jsonPath("$.hasMore").value(false));
+        log.info("Test testGetAddressChanges passed");
+    }
+
+    /*
+     * Test reading a page of search results with a single SELECT, whatever the page size.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Query Budget - Search Addresses")
+    void testSearchAddresses() throws Exception {
+        log.info("Running testSearchAddresses");
+        mockMvc.perform(get("/addresses/search")
+                        .param("country", "Country")
+                        .param("state", "ST")
+                        .param("limit", String.valueOf(ADDRESSES)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(ADDRESSES))
+                .andExpect(jsonPath("$.content[0].street").value("0 St"));
+        log.info("Test testSearchAddresses passed");
+    }
+
+    /*
+     * Test that selecting only some fields of an address or of a page takes a single SELECT each.
+     */
+    @Test
+    @QueryBudget(select = 2)
+    @DisplayName("Query Budget - Sparse Fieldsets")
+    void testSparseFieldsets() throws Exception {
+        log.info("Running testSparseFieldsets");
+        mockMvc.perform(get("/addresses/" + id).param("fields", "zipCode"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zipCode").value("00000"));
+        mockMvc.perform(get("/addresses").param("fields", "id,zipCode").param("limit", String.valueOf(ADDRESSES)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(ADDRESSES))
+                .andExpect(jsonPath("$.content[0].street").doesNotExist());
+        log.info("Test testSparseFieldsets passed");
+    }
+
+    /*
+     * Test looking up a list of IDs with a single IN query.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Query Budget - Lookup Addresses")
+    void testLookupAddresses() throws Exception {
+        log.info("Running testLookupAddresses");
+        List<Long> ids = LongStream.range(id - 10, id + ADDRESSES).boxed().toList();
+        mockMvc.perform(post("/addresses/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.addresses.length()").value(ADDRESSES))
+                .andExpect(jsonPath("$.missing.length()").value(10));
+        log.info("Test testLookupAddresses passed");
+    }
+
+    /*
+     * Test that autocompletion is answered from the in-memory index without any query.
+     */
+    @Test
+    @QueryBudget
+    @DisplayName("Query Budget - Autocomplete")
+    void testAutocomplete() throws Exception {
+        log.info("Running testAutocomplete");
+        mockMvc.perform(get("/addresses/autocomplete").param("field", "street").param("prefix", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("1 St"));
+        log.info("Test testAutocomplete passed");
+    }
+
+    /*
+     * Test streaming every address through a single SELECT.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Query Budget - Export Addresses")
+    void testExportAddresses() throws Exception {
+        log.info("Running testExportAddresses");
+        MvcResult result = mockMvc.perform(get("/addresses/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        log.info("Test testExportAddresses passed");
+    }
+
+    /*
+     * Returns an address request with the given street.
+     */
+    private static AddressRequest addressRequest(String street) {
+        return new AddressRequest(street, "City", "State", "12345", "Country");
+    }
+}
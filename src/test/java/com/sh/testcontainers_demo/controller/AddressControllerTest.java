@@ -1,10 +1,27 @@
 package com.sh.testcontainers_demo.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sh.testcontainers_demo.cache.AddressAutocompleteIndex;
+import com.sh.testcontainers_demo.cache.AddressIdFilter;
+import com.sh.testcontainers_demo.cache.AddressResponseCache;
+import com.sh.testcontainers_demo.config.AddressProperties;
+import com.sh.testcontainers_demo.config.ResponseCacheProperties;
+import com.sh.testcontainers_demo.dto.AddressChange;
+import com.sh.testcontainers_demo.dto.AddressChangePage;
+import com.sh.testcontainers_demo.dto.AddressLookupResponse;
+import com.sh.testcontainers_demo.dto.AddressPatchRequest;
 import com.sh.testcontainers_demo.dto.AddressRequest;
 import com.sh.testcontainers_demo.dto.AddressResponse;
+import com.sh.testcontainers_demo.dto.AddressSearchCriteria;
+import com.sh.testcontainers_demo.dto.BulkAddressResponse;
+import com.sh.testcontainers_demo.dto.ChangeCursor;
+import com.sh.testcontainers_demo.dto.CursorPage;
 import com.sh.testcontainers_demo.exception.AddressNotFoundException;
+import com.sh.testcontainers_demo.exception.PreconditionFailedException;
+import com.sh.testcontainers_demo.service.AddressLoadCoalescer;
 import com.sh.testcontainers_demo.service.AddressService;
+import com.sh.testcontainers_demo.service.OptimisticLockRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,18 +30,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
  * Unit tests for AddressController.
@@ -39,6 +68,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Slf4j
 @WebMvcTest(AddressController.class)
 class AddressControllerTest {
+    private static final int CALLERS = 8;
+    private static final SimpleMeterRegistry COALESCER_METRICS = new SimpleMeterRegistry();
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -57,11 +89,70 @@ class AddressControllerTest {
         public AddressService addressService() {
             return Mockito.mock(AddressService.class);
         }
+
+        /*
+         * Provides the address properties with their default values.
+         */
+        @Bean
+        public AddressProperties addressProperties() {
+            return new AddressProperties();
+        }
+
+        /*
+         * Provides an enabled response cache.
+         */
+        @Bean
+        public AddressResponseCache addressResponseCache(ObjectMapper objectMapper) {
+            ResponseCacheProperties properties = new ResponseCacheProperties();
+            properties.setEnabled(true);
+            return new AddressResponseCache(objectMapper, properties, new SimpleMeterRegistry());
+        }
+
+        /*
+         * Provides the load coalescer, disabled by default, in front of the mock service.
+         */
+        @Bean
+        public AddressLoadCoalescer addressLoadCoalescer(AddressService addressService, AddressProperties addressProperties) {
+            return new AddressLoadCoalescer(addressService, addressProperties, COALESCER_METRICS);
+        }
+
+        /*
+         * Provides an empty autocomplete index.
+         */
+        @Bean
+        public AddressAutocompleteIndex addressAutocompleteIndex() {
+            return new AddressAutocompleteIndex();
+        }
+
+        /*
+         * Provides an ID filter that is never loaded, so every lookup reaches the mock service.
+         */
+        @Bean
+        public AddressIdFilter addressIdFilter(AddressProperties addressProperties) {
+            return new AddressIdFilter(addressProperties, new SimpleMeterRegistry());
+        }
+
+        /*
+         * Provides the optimistic lock retry policy.
+         */
+        @Bean
+        public OptimisticLockRetry optimisticLockRetry(AddressProperties addressProperties) {
+            return new OptimisticLockRetry(addressProperties, new SimpleMeterRegistry());
+        }
     }
 
     @Autowired
     private AddressService addressService;
 
+    @Autowired
+    private AddressProperties addressProperties;
+
+    @Autowired
+    private AddressAutocompleteIndex addressAutocompleteIndex;
+
+    @Autowired
+    private AddressResponseCache addressResponseCache;
+
     /*
      * Test creating a new address.
      */
@@ -70,7 +161,7 @@ class AddressControllerTest {
     void testCreateAddress() throws Exception {
         log.info("Running testCreateAddress");
         AddressRequest request = new AddressRequest("Street", "City", "State", "12345", "Country");
-        AddressResponse response = new AddressResponse(1L, "Street", "City", "State", "12345", "Country", Instant.now(), Instant.now(), "creator", "modifier");
+        AddressResponse response = new AddressResponse(1L, "Street", "City", "State", "12345", "Country", Instant.now(), Instant.now(), "creator", "modifier", 0L);
         Mockito.when(addressService.createAddress(any(AddressRequest.class))).thenReturn(response);
         mockMvc.perform(post("/addresses")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -80,6 +171,24 @@ class AddressControllerTest {
         log.info("Test testCreateAddress passed");
     }
 
+    /*
+     * Test creating addresses in bulk.
+     */
+    @Test
+    @DisplayName("Test Create Addresses - Bulk")
+    void testCreateAddresses() throws Exception {
+        log.info("Running testCreateAddresses");
+        AddressRequest request = new AddressRequest("Street", "City", "State", "12345", "Country");
+        Mockito.when(addressService.createAddresses(Mockito.anyList())).thenReturn(new BulkAddressResponse(List.of(1L, 2L), List.of(3L)));
+        mockMvc.perform(post("/addresses/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request, request))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.ids[1]").value(2L))
+                .andExpect(jsonPath("$.chunkDurationsMillis[0]").value(3L));
+        log.info("Test testCreateAddresses passed");
+    }
+
     /*
      * Test retrieving an address by ID.
      */
@@ -87,7 +196,7 @@ class AddressControllerTest {
     @DisplayName("Test Get Address By ID")
     void testGetAddressById() throws Exception {
         log.info("Running testGetAddressById");
-        AddressResponse response = new AddressResponse(1L, "Street", "City", "State", "12345", "Country", Instant.now(), Instant.now(), "creator", "modifier");
+        AddressResponse response = new AddressResponse(1L, "Street", "City", "State", "12345", "Country", Instant.now(), Instant.now(), "creator", "modifier", 0L);
         Mockito.when(addressService.getAddressById(1L)).thenReturn(response);
         mockMvc.perform(get("/addresses/1"))
                 .andExpect(status().isOk())
@@ -95,6 +204,193 @@ class AddressControllerTest {
         log.info("Test testGetAddressById passed");
     }
 
+    /*
+     * Test that a repeated read of an address is served from the response cache.
+     * Verifies that the service is called once and both responses carry the same JSON.
+     */
+    @Test
+    @DisplayName("Test Get Address By ID - Cached Response")
+    void testGetAddressById_CachedResponse() throws Exception {
+        log.info("Running testGetAddressById_CachedResponse");
+        AddressResponse response = new AddressResponse(7L, "Street", "City", "State", "12345", "Country", null, null, "creator", "modifier", 0L);
+        Mockito.when(addressService.getAddressById(7L)).thenReturn(response);
+        String expected = objectMapper.writeValueAsString(response);
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/addresses/7"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(header().longValue("Content-Length", expected.length()))
+                    .andExpect(content().json(expected, true));
+        }
+        Mockito.verify(addressService, Mockito.times(1)).getAddressById(7L);
+        addressResponseCache.invalidate(7L);
+        mockMvc.perform(get("/addresses/7"))
+                .andExpect(status().isOk());
+        Mockito.verify(addressService, Mockito.times(2)).getAddressById(7L);
+        log.info("Test testGetAddressById_CachedResponse passed");
+    }
+
+    /*
+     * Test concurrent reads of an uncached address with the response cache enabled.
+     * Verifies that the cache lets a single request load the address while the others wait,
+     * so the coalescer has nothing left to share.
+     */
+    @Test
+    @DisplayName("Test Get Address By ID - Concurrent Cache Miss")
+    void testGetAddressById_ConcurrentCacheMiss() throws Exception {
+        log.info("Running testGetAddressById_ConcurrentCacheMiss");
+        AddressResponse response = new AddressResponse(31L, "Street", "City", "State", "12345", "Country", null, null, "creator", "modifier", 0L);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(addressService.getAddressById(31L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+        double coalesced = COALESCER_METRICS.counter("address.load.coalesced").count();
+        addressProperties.getCoalescing().setEnabled(true);
+        try {
+            List<Integer> statuses = performConcurrently(get("/addresses/31"), release, false);
+            assertThat(statuses).hasSize(CALLERS).containsOnly(200);
+        } finally {
+            addressProperties.getCoalescing().setEnabled(false);
+        }
+        Mockito.verify(addressService, Mockito.times(1)).getAddressById(31L);
+        assertThat(COALESCER_METRICS.counter("address.load.coalesced").count()).isEqualTo(coalesced);
+        log.info("Test testGetAddressById_ConcurrentCacheMiss passed");
+    }
+
+    /*
+     * Test concurrent conditional reads with the response cache enabled.
+     * Verifies that the version lookups, which bypass the cache, share a single query.
+     */
+    @Test
+    @DisplayName("Test Get Address By ID - Concurrent Not Modified")
+    void testGetAddressById_ConcurrentNotModified() throws Exception {
+        log.info("Running testGetAddressById_ConcurrentNotModified");
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(addressService.getAddressVersion(32L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 3L;
+        });
+        addressProperties.getCoalescing().setEnabled(true);
+        try {
+            List<Integer> statuses = performConcurrently(get("/addresses/32").header("If-None-Match", "\"3\""), release, true);
+            assertThat(statuses).hasSize(CALLERS).containsOnly(304);
+        } finally {
+            addressProperties.getCoalescing().setEnabled(false);
+        }
+        Mockito.verify(addressService, Mockito.times(1)).getAddressVersion(32L);
+        log.info("Test testGetAddressById_ConcurrentNotModified passed");
+    }
+
+    /*
+     * Test concurrent sparse reads of the same fields, which the response cache does not hold.
+     * Verifies that they share a single query.
+     */
+    @Test
+    @DisplayName("Test Get Address Fields By ID - Concurrent")
+    void testGetAddressFieldsById_Concurrent() throws Exception {
+        log.info("Running testGetAddressFieldsById_Concurrent");
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(addressService.getAddressFields(33L, List.of("zipCode"))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of("zipCode", "12345");
+        });
+        addressProperties.getCoalescing().setEnabled(true);
+        try {
+            List<Integer> statuses = performConcurrently(get("/addresses/33").param("fields", "zipCode"), release, true);
+            assertThat(statuses).hasSize(CALLERS).containsOnly(200);
+        } finally {
+            addressProperties.getCoalescing().setEnabled(false);
+        }
+        Mockito.verify(addressService, Mockito.times(1)).getAddressFields(33L, List.of("zipCode"));
+        log.info("Test testGetAddressFieldsById_Concurrent passed");
+    }
+
+    /*
+     * Performs the request from several threads and releases the blocked read once every
+     * other thread waits for it: once all have joined it in the coalescer, or otherwise once
+     * all threads are parked, as they are behind a load in the response cache.
+     * Returns the status of each response.
+     */
+    private List<Integer> performConcurrently(MockHttpServletRequestBuilder request, CountDownLatch release,
+                                              boolean coalesced) throws InterruptedException {
+        double joined = COALESCER_METRICS.counter("address.load.coalesced").count();
+        List<Integer> statuses = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> callers = IntStream.range(0, CALLERS)
+                .mapToObj(i -> new Thread(() -> {
+                    try {
+                        statuses.add(mockMvc.perform(request).andReturn().getResponse().getStatus());
+                    } catch (Exception e) {
+                        log.error("Request failed", e);
+                    }
+                }))
+                .toList();
+        callers.forEach(Thread::start);
+        await().atMost(Duration.ofSeconds(5)).until(() -> coalesced
+                ? COALESCER_METRICS.counter("address.load.coalesced").count() == joined + CALLERS - 1
+                : callers.stream().allMatch(caller -> waiting(caller.getState())));
+        release.countDown();
+        for (Thread caller : callers) {
+            caller.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        return statuses;
+    }
+
+    private static boolean waiting(Thread.State state) {
+        return state == Thread.State.BLOCKED || state == Thread.State.WAITING || state == Thread.State.TIMED_WAITING;
+    }
+
+    /*
+     * Test that the address version is returned as the ETag.
+     */
+    @Test
+    @DisplayName("Test Get Address By ID - ETag")
+    void testGetAddressById_ETag() throws Exception {
+        log.info("Running testGetAddressById_ETag");
+        AddressResponse response = new AddressResponse(8L, "Street", "City", "State", "12345", "Country", null, null, "creator", "modifier", 3L);
+        Mockito.when(addressService.getAddressById(8L)).thenReturn(response);
+        mockMvc.perform(get("/addresses/8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+        log.info("Test testGetAddressById_ETag passed");
+    }
+
+    /*
+     * Test a conditional GET whose If-None-Match header matches the current version.
+     * Verifies that 304 Not Modified is returned without loading the address.
+     */
+    @Test
+    @DisplayName("Test Get Address By ID - Not Modified")
+    void testGetAddressById_NotModified() throws Exception {
+        log.info("Running testGetAddressById_NotModified");
+        Mockito.clearInvocations(addressService);
+        Mockito.when(addressService.getAddressVersion(9L)).thenReturn(3L);
+        mockMvc.perform(get("/addresses/9").header("If-None-Match", "\"2\", W/\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+        Mockito.verify(addressService, Mockito.never()).getAddressById(9L);
+        log.info("Test testGetAddressById_NotModified passed");
+    }
+
+    /*
+     * Test a conditional GET whose If-None-Match header does not match the current version.
+     * Verifies that the address is returned with its new ETag.
+     */
+    @Test
+    @DisplayName("Test Get Address By ID - Modified")
+    void testGetAddressById_Modified() throws Exception {
+        log.info("Running testGetAddressById_Modified");
+        AddressResponse response = new AddressResponse(10L, "Street", "City", "State", "12345", "Country", null, null, "creator", "modifier", 4L);
+        Mockito.when(addressService.getAddressVersion(10L)).thenReturn(4L);
+        Mockito.when(addressService.getAddressById(10L)).thenReturn(response);
+        mockMvc.perform(get("/addresses/10").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version").value(4L));
+        log.info("Test testGetAddressById_Modified passed");
+    }
+
     /*
      * Test updating an existing address.
      */
@@ -103,7 +399,7 @@ class AddressControllerTest {
     void testUpdateAddress() throws Exception {
         log.info("Running testUpdateAddress");
         AddressRequest request = new AddressRequest("New Street", "New City", "New State", "54321", "New Country");
-        AddressResponse response = new AddressResponse(1L, "New Street", "New City", "New State", "54321", "New Country", Instant.now(), Instant.now(), "creator", "modifier");
+        AddressResponse response = new AddressResponse(1L, "New Street", "New City", "New State", "54321", "New Country", Instant.now(), Instant.now(), "creator", "modifier", 0L);
         Mockito.when(addressService.updateAddress(eq(1L), any(AddressRequest.class))).thenReturn(response);
         mockMvc.perform(put("/addresses/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -113,6 +409,161 @@ class AddressControllerTest {
         log.info("Test testUpdateAddress passed");
     }
 
+    /*
+     * Test updating an address with an If-Match header.
+     * Verifies that the expected version is passed on and the new ETag returned.
+     */
+    @Test
+    @DisplayName("Test Update Address - If-Match")
+    void testUpdateAddress_IfMatch() throws Exception {
+        log.info("Running testUpdateAddress_IfMatch");
+        AddressRequest request = new AddressRequest("New Street", "New City", "New State", "54321", "New Country");
+        AddressResponse response = new AddressResponse(2L, "New Street", "New City", "New State", "54321", "New Country", null, null, "creator", "modifier", 4L);
+        Mockito.when(addressService.updateAddress(2L, request, 3L)).thenReturn(response);
+        mockMvc.perform(put("/addresses/2")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+        log.info("Test testUpdateAddress_IfMatch passed");
+    }
+
+    /*
+     * Test updating an address whose version no longer matches the If-Match header.
+     * Verifies that a 412 Precondition Failed status is returned.
+     */
+    @Test
+    @DisplayName("Test Update Address - Precondition Failed")
+    void testUpdateAddress_PreconditionFailed() throws Exception {
+        log.info("Running testUpdateAddress_PreconditionFailed");
+        AddressRequest request = new AddressRequest("New Street", "New City", "New State", "54321", "New Country");
+        Mockito.when(addressService.updateAddress(3L, request, 1L)).thenThrow(new PreconditionFailedException("version mismatch"));
+        mockMvc.perform(put("/addresses/3")
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/addresses/3")
+                        .header("If-Match", "W/\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+        log.info("Test testUpdateAddress_PreconditionFailed passed");
+    }
+
+    /*
+     * Test updating an address without If-Match that keeps conflicting with concurrent writes.
+     * Verifies that the update is retried and a 409 Conflict status returned once retries are exhausted.
+     */
+    @Test
+    @DisplayName("Test Update Address - Retries Exhausted")
+    void testUpdateAddress_RetriesExhausted() throws Exception {
+        log.info("Running testUpdateAddress_RetriesExhausted");
+        AddressRequest request = new AddressRequest("Street", "City", "State", "12345", "Country");
+        Mockito.when(addressService.updateAddress(4L, request))
+                .thenThrow(new OptimisticLockingFailureException("conflict"));
+        mockMvc.perform(put("/addresses/4")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+        Mockito.verify(addressService, Mockito.times(addressProperties.getRetry().getMaxAttempts())).updateAddress(4L, request);
+        log.info("Test testUpdateAddress_RetriesExhausted passed");
+    }
+
+    /*
+     * Test deleting an address with an If-Match header.
+     */
+    @Test
+    @DisplayName("Test Delete Address - If-Match")
+    void testDeleteAddress_IfMatch() throws Exception {
+        log.info("Running testDeleteAddress_IfMatch");
+        mockMvc.perform(delete("/addresses/5").header("If-Match", "\"2\""))
+                .andExpect(status().isNoContent());
+        Mockito.verify(addressService).deleteAddress(5L, 2L);
+        Mockito.doThrow(new PreconditionFailedException("version mismatch")).when(addressService).deleteAddress(6L, 1L);
+        mockMvc.perform(delete("/addresses/6").header("If-Match", "\"1\""))
+                .andExpect(status().isPreconditionFailed());
+        log.info("Test testDeleteAddress_IfMatch passed");
+    }
+
+    /*
+     * Test patching an address with a JSON Merge Patch document.
+     */
+    @Test
+    @DisplayName("Test Patch Address")
+    void testPatchAddress() throws Exception {
+        log.info("Running testPatchAddress");
+        AddressResponse response = new AddressResponse(1L, "Street", "City", "State", "54321", "Country", Instant.now(), Instant.now(), "creator", "modifier", 0L);
+        AddressPatchRequest patch = new AddressPatchRequest(null, null, null, "54321", null);
+        Mockito.when(addressService.patchAddress(1L, patch)).thenReturn(response);
+        mockMvc.perform(patch("/addresses/1")
+                        .contentType(AddressController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"zipCode\":\"54321\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zipCode").value("54321"));
+        log.info("Test testPatchAddress passed");
+    }
+
+    /*
+     * Test patching an address with an explicit null or blank value.
+     * Verifies that a 400 Bad Request status is returned.
+     */
+    @Test
+    @DisplayName("Test Patch Address - Invalid Values")
+    void testPatchAddress_InvalidValues() throws Exception {
+        log.info("Running testPatchAddress_InvalidValues");
+        mockMvc.perform(patch("/addresses/1")
+                        .contentType(AddressController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"street\":null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/addresses/1")
+                        .contentType(AddressController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"street\":\" \"}"))
+                .andExpect(status().isBadRequest());
+        log.info("Test testPatchAddress_InvalidValues passed");
+    }
+
+    /*
+     * Test patching an address with a member that is not an address field, alone or next to a valid one.
+     * Verifies that a 400 Bad Request status is returned instead of ignoring the member.
+     */
+    @Test
+    @DisplayName("Test Patch Address - Unknown Field")
+    void testPatchAddress_UnknownField() throws Exception {
+        log.info("Running testPatchAddress_UnknownField");
+        Mockito.clearInvocations(addressService);
+        mockMvc.perform(patch("/addresses/1")
+                        .contentType(AddressController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"zipcode\":\"123\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown field: zipcode"));
+        mockMvc.perform(patch("/addresses/1")
+                        .contentType(AddressController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"zipCode\":\"54321\",\"user\":{\"id\":2}}"))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(addressService);
+        log.info("Test testPatchAddress_UnknownField passed");
+    }
+
+    /*
+     * Test patching an address with a street spanning two lines.
+     */
+    @Test
+    @DisplayName("Test Patch Address - Multiline Value")
+    void testPatchAddress_MultilineValue() throws Exception {
+        log.info("Running testPatchAddress_MultilineValue");
+        AddressResponse response = new AddressResponse(1L, "1 Main St\nUnit 2", "City", "State", "54321", "Country", Instant.now(), Instant.now(), "creator", "modifier", 0L);
+        Mockito.when(addressService.patchAddress(1L, new AddressPatchRequest("1 Main St\nUnit 2", null, null, null, null)))
+                .thenReturn(response);
+        mockMvc.perform(patch("/addresses/1")
+                        .contentType(AddressController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"street\":\"1 Main St\\nUnit 2\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.street").value("1 Main St\nUnit 2"));
+        log.info("Test testPatchAddress_MultilineValue passed");
+    }
+
     /*
      * Test deleting an address by ID.
      */
@@ -127,21 +578,90 @@ class AddressControllerTest {
     }
 
     /*
-     * Test retrieving all addresses.
+     * Test retrieving all addresses when unpaged retrieval is enabled.
      */
     @Test
     @DisplayName("Test Get All Addresses")
     void testGetAllAddresses() throws Exception {
         log.info("Running testGetAllAddresses");
-        AddressResponse response = new AddressResponse(1L, "Street", "City", "State", "12345", "Country", Instant.now(), Instant.now(), "creator", "modifier");
+        addressProperties.getPagination().setUnpagedEnabled(true);
+        AddressResponse response = new AddressResponse(1L, "Street", "City", "State", "12345", "Country", Instant.now(), Instant.now(), "creator", "modifier", 0L);
         List<AddressResponse> responses = Collections.singletonList(response);
         Mockito.when(addressService.getAllAddresses()).thenReturn(responses);
-        mockMvc.perform(get("/addresses"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L));
+        try {
+            mockMvc.perform(get("/addresses").param("unpaged", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(1L))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        } finally {
+            addressProperties.getPagination().setUnpagedEnabled(false);
+        }
         log.info("Test testGetAllAddresses passed");
     }
 
+    /*
+     * Test that unpaged retrieval is rejected unless explicitly enabled.
+     * Verifies that a 400 Bad Request status is returned.
+     */
+    @Test
+    @DisplayName("Test Get All Addresses - Unpaged Disabled")
+    void testGetAllAddresses_UnpagedDisabled() throws Exception {
+        log.info("Running testGetAllAddresses_UnpagedDisabled");
+        Mockito.clearInvocations(addressService);
+        mockMvc.perform(get("/addresses").param("unpaged", "true"))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(addressService, Mockito.never()).getAllAddresses();
+        log.info("Test testGetAllAddresses_UnpagedDisabled passed");
+    }
+
+    /*
+     * Test retrieving a page of addresses with a cursor and limit.
+     */
+    @Test
+    @DisplayName("Test Get Address Page")
+    void testGetAddressPage() throws Exception {
+        log.info("Running testGetAddressPage");
+        AddressResponse response = new AddressResponse(11L, "Street", "City", "State", "12345", "Country", Instant.now(), Instant.now(), "creator", "modifier", 0L);
+        Mockito.when(addressService.getAddressPage(10L, 1)).thenReturn(new CursorPage<>(List.of(response), "11"));
+        mockMvc.perform(get("/addresses").param("after", "10").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(11L))
+                .andExpect(jsonPath("$.nextCursor").value("11"));
+        log.info("Test testGetAddressPage passed");
+    }
+
+    /*
+     * Test that the default limit is used and large limits are clamped to the maximum.
+     */
+    @Test
+    @DisplayName("Test Get Address Page - Limit Defaults And Clamping")
+    void testGetAddressPage_LimitDefaultsAndClamping() throws Exception {
+        log.info("Running testGetAddressPage_LimitDefaultsAndClamping");
+        AddressProperties.Pagination pagination = addressProperties.getPagination();
+        Mockito.clearInvocations(addressService);
+        Mockito.when(addressService.getAddressPage(any(), Mockito.anyInt())).thenReturn(new CursorPage<>(List.of(), null));
+        mockMvc.perform(get("/addresses"))
+                .andExpect(status().isOk());
+        Mockito.verify(addressService).getAddressPage(null, pagination.getDefaultLimit());
+        mockMvc.perform(get("/addresses").param("limit", String.valueOf(pagination.getMaxLimit() + 1)))
+                .andExpect(status().isOk());
+        Mockito.verify(addressService).getAddressPage(null, pagination.getMaxLimit());
+        log.info("Test testGetAddressPage_LimitDefaultsAndClamping passed");
+    }
+
+    /*
+     * Test that a non-positive limit is rejected.
+     * Verifies that a 400 Bad Request status is returned.
+     */
+    @Test
+    @DisplayName("Test Get Address Page - Invalid Limit")
+    void testGetAddressPage_InvalidLimit() throws Exception {
+        log.info("Running testGetAddressPage_InvalidLimit");
+        mockMvc.perform(get("/addresses").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        log.info("Test testGetAddressPage_InvalidLimit passed");
+    }
+
     /*
      * Test retrieving an address by ID when the address does not exist.
      * Verifies that a 404 Not Found status is returned.
@@ -155,4 +675,201 @@ class AddressControllerTest {
                 .andExpect(status().isNotFound());
         log.info("Test testGetAddressById_NotFound passed");
     }
+
+    /*
+     * Test exporting all addresses as newline-delimited JSON.
+     * Verifies that each address is written on its own line.
+     */
+    @Test
+    @DisplayName("Test Export Addresses")
+    void testExportAddresses() throws Exception {
+        log.info("Running testExportAddresses");
+        AddressResponse first = new AddressResponse(1L, "Street", "City", "State", "12345", "Country", null, null, "creator", "modifier", 0L);
+        AddressResponse second = new AddressResponse(2L, "Street", "City", "State", "12345", "Country", null, null, "creator", "modifier", 0L);
+        Mockito.when(addressService.exportAddresses(any())).thenAnswer(invocation -> {
+            Consumer<AddressResponse> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return 2L;
+        });
+        MvcResult result = mockMvc.perform(get("/addresses/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String expected = objectMapper.writeValueAsString(first) + "\n" + objectMapper.writeValueAsString(second);
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expected));
+        log.info("Test testExportAddresses passed");
+    }
+
+    /*
+     * Test searching addresses by the filters sent as request parameters.
+     * Verifies that the filters are bound to the criteria and the limit is clamped.
+     */
+    @Test
+    @DisplayName("Test Search Addresses")
+    void testSearchAddresses() throws Exception {
+        log.info("Running testSearchAddresses");
+        AddressResponse response = new AddressResponse(7L, "Street", "Springfield", "IL", "62704", "USA", null, null, "creator", "modifier", 0L);
+        AddressSearchCriteria criteria = new AddressSearchCriteria("Springfield", "IL", "USA", null);
+        int maxLimit = addressProperties.getPagination().getMaxLimit();
+        Mockito.when(addressService.searchAddresses(criteria, 5L, maxLimit)).thenReturn(new CursorPage<>(List.of(response), "7"));
+        mockMvc.perform(get("/addresses/search")
+                        .param("city", "Springfield")
+                        .param("state", "IL")
+                        .param("country", "USA")
+                        .param("after", "5")
+                        .param("limit", String.valueOf(maxLimit + 1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(7))
+                .andExpect(jsonPath("$.nextCursor").value("7"));
+        mockMvc.perform(get("/addresses/search").param("zipCode", "62704").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        log.info("Test testSearchAddresses passed");
+    }
+
+    /*
+     * Test reading the change feed from a start time and from a cursor.
+     * Verifies that a cursor takes precedence and that requests without a valid position are rejected.
+     */
+    @Test
+    @DisplayName("Test Get Address Changes")
+    void testGetAddressChanges() throws Exception {
+        log.info("Running testGetAddressChanges");
+        Instant since = Instant.parse("2024-01-01T00:00:00Z");
+        ChangeCursor cursor = new ChangeCursor(since, 7L);
+        int defaultLimit = addressProperties.getPagination().getDefaultLimit();
+        AddressChangePage page = new AddressChangePage(
+                List.of(new AddressChange(AddressChange.Type.DELETED, 7L, since, null)), cursor.encode(), false);
+        Mockito.when(addressService.getAddressChanges(ChangeCursor.since(since), defaultLimit)).thenReturn(page);
+        Mockito.when(addressService.getAddressChanges(cursor, 10)).thenReturn(new AddressChangePage(List.of(), cursor.encode(), false));
+        mockMvc.perform(get("/addresses/changes").param("since", "2024-01-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("DELETED"))
+                .andExpect(jsonPath("$.changes[0].id").value(7))
+                .andExpect(jsonPath("$.nextCursor").value(cursor.encode()))
+                .andExpect(jsonPath("$.hasMore").value(false));
+        mockMvc.perform(get("/addresses/changes")
+                        .param("since", "2020-01-01T00:00:00Z")
+                        .param("cursor", cursor.encode())
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(0));
+        mockMvc.perform(get("/addresses/changes"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/addresses/changes").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest());
+        log.info("Test testGetAddressChanges passed");
+    }
+
+    /*
+     * Test autocompleting streets and cities from the index.
+     * Verifies that the service is not called and invalid requests are rejected.
+     */
+    @Test
+    @DisplayName("Test Autocomplete")
+    void testAutocomplete() throws Exception {
+        log.info("Running testAutocomplete");
+        Mockito.clearInvocations(addressService);
+        addressAutocompleteIndex.put(new AddressAutocompleteIndex.Entry(1L, "Main Street", "Springfield"));
+        addressAutocompleteIndex.put(new AddressAutocompleteIndex.Entry(2L, "Maple Avenue", "Shelbyville"));
+        mockMvc.perform(get("/addresses/autocomplete").param("field", "street").param("prefix", "ma"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0]").value("Main Street"));
+        mockMvc.perform(get("/addresses/autocomplete").param("field", "city").param("prefix", "SPR").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Springfield"));
+        mockMvc.perform(get("/addresses/autocomplete").param("field", "country").param("prefix", "u"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/addresses/autocomplete").param("field", "city").param("prefix", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/addresses/autocomplete").param("field", "city").param("prefix", "s").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(addressService);
+        log.info("Test testAutocomplete passed");
+    }
+
+    /*
+     * Test looking up addresses by a list of IDs, sent as a query parameter or in the body.
+     * Verifies that found addresses and missing IDs are returned and that oversized lists are rejected.
+     */
+    @Test
+    @DisplayName("Test Lookup Addresses")
+    void testLookupAddresses() throws Exception {
+        log.info("Running testLookupAddresses");
+        AddressResponse response = new AddressResponse(2L, "Street", "City", "State", "12345", "Country", null, null, "creator", "modifier", 0L);
+        Mockito.when(addressService.lookupAddresses(List.of(2L, 5L))).thenReturn(new AddressLookupResponse(List.of(response), List.of(5L)));
+        mockMvc.perform(get("/addresses").param("ids", "2,5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.addresses[0].id").value(2))
+                .andExpect(jsonPath("$.missing[0]").value(5));
+        mockMvc.perform(post("/addresses/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[2,5]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.addresses.length()").value(1))
+                .andExpect(jsonPath("$.missing[0]").value(5));
+        List<Long> tooMany = LongStream.rangeClosed(1, addressProperties.getLookup().getMaxIds() + 1).boxed().toList();
+        mockMvc.perform(post("/addresses/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tooMany)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/addresses/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+        log.info("Test testLookupAddresses passed");
+    }
+
+    /*
+     * Test requesting a sparse fieldset together with an ID lookup.
+     * Verifies that the combination is rejected before reaching the service.
+     */
+    @Test
+    @DisplayName("Test Lookup Addresses - Fields Rejected")
+    void testLookupAddresses_FieldsRejected() throws Exception {
+        log.info("Running testLookupAddresses_FieldsRejected");
+        Mockito.clearInvocations(addressService);
+        mockMvc.perform(get("/addresses").param("ids", "2,5").param("fields", "id,zipCode"))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(addressService);
+        log.info("Test testLookupAddresses_FieldsRejected passed");
+    }
+
+    /*
+     * Test requesting sparse fieldsets on the address GET endpoints.
+     * Verifies that only the requested fields are returned and unknown fields are rejected.
+     */
+    @Test
+    @DisplayName("Test Sparse Fieldsets")
+    void testSparseFieldsets() throws Exception {
+        log.info("Running testSparseFieldsets");
+        Mockito.when(addressService.getAddressFields(1L, List.of("id", "zipCode")))
+                .thenReturn(Map.of("id", 1L, "zipCode", "12345"));
+        mockMvc.perform(get("/addresses/1").param("fields", "id,zipCode,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zipCode").value("12345"))
+                .andExpect(jsonPath("$.street").doesNotExist());
+        AddressSearchCriteria all = new AddressSearchCriteria(null, null, null, null);
+        int defaultLimit = addressProperties.getPagination().getDefaultLimit();
+        Mockito.when(addressService.searchAddressFields(all, null, defaultLimit, List.of("city")))
+                .thenReturn(new CursorPage<>(List.of(Map.of("city", "City")), "9"));
+        mockMvc.perform(get("/addresses").param("fields", "city"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].city").value("City"))
+                .andExpect(jsonPath("$.nextCursor").value("9"));
+        AddressSearchCriteria usa = new AddressSearchCriteria(null, null, "USA", null);
+        Mockito.when(addressService.searchAddressFields(usa, null, defaultLimit, List.of("state")))
+                .thenReturn(new CursorPage<>(List.of(Map.of("state", "IL")), null));
+        mockMvc.perform(get("/addresses/search").param("country", "USA").param("fields", "state"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].state").value("IL"));
+        mockMvc.perform(get("/addresses/1").param("fields", "id,user"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/addresses").param("fields", ""))
+                .andExpect(status().isBadRequest());
+        log.info("Test testSparseFieldsets passed");
+    }
 }
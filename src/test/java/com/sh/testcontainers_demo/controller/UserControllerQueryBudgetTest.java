@@ -0,0 +1,288 @@
+package com.sh.testcontainers_demo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sh.testcontainers_demo.dto.AddressRequest;
+import com.sh.testcontainers_demo.dto.UserRequest;
+import com.sh.testcontainers_demo.dto.UserUpsertRequest;
+import com.sh.testcontainers_demo.repository.AddressRepository;
+import com.sh.testcontainers_demo.repository.AddressTombstoneRepository;
+import com.sh.testcontainers_demo.repository.UserRepository;
+import com.sh.testcontainers_demo.service.UserService;
+import com.sh.testcontainers_demo.support.QueryBudget;
+import com.sh.testcontainers_demo.support.SqlStatementCounting;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query budget tests for the UserController endpoints.
+ * <p>
+ * Each test calls one endpoint against the database with the caches disabled and fails
+ * when it executes more SQL statements than its {@link QueryBudget} allows. Budgets do
+ * not depend on the number of stored users or addresses; inserts may also need a SELECT
+ * of the next block of IDs from a sequence.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@SqlStatementCounting
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "app.cache.second-level.enabled=false",
+        "app.cache.response.enabled=false"
+})
+class UserControllerQueryBudgetTest {
+
+    private static final int USERS = 60;
+    private static final int ADDRESSES_PER_USER = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private AddressTombstoneRepository addressTombstoneRepository;
+
+    private Long id;
+
+    /*
+     * Store enough users to span several pages and address batches.
+     */
+    @BeforeEach
+    void setUp() {
+        id = IntStream.range(0, USERS)
+                .mapToObj(i -> userService.createUser(userRequest("user" + i, ADDRESSES_PER_USER)).id())
+                .toList()
+                .getFirst();
+    }
+
+    /*
+     * Remove the stored addresses, users and tombstones.
+     */
+    @AfterEach
+    void tearDown() {
+        addressRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        addressTombstoneRepository.deleteAllInBatch();
+    }
+
+    /*
+     * Test creating a user with its addresses in one batched INSERT per table.
+     */
+    @Test
+    @QueryBudget(select = 2, insert = 2)
+    @DisplayName("Query Budget - Create User")
+    void testCreateUser() throws Exception {
+        log.info("Running testCreateUser");
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest("new", 20))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.address.length()").value(20));
+        log.info("Test testCreateUser passed");
+    }
+
+    /*
+     * Test reading a user without addresses with a single SELECT.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Query Budget - Get User By ID")
+    void testGetUserById() throws Exception {
+        log.info("Running testGetUserById");
+        mockMvc.perform(get("/users/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address").doesNotExist());
+        log.info("Test testGetUserById passed");
+    }
+
+    /*
+     * Test reading a user with its addresses expanded in a single SELECT.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Query Budget - Get User By ID With Addresses")
+    void testGetUserById_WithAddress() throws Exception {
+        log.info("Running testGetUserById_WithAddress");
+        mockMvc.perform(get("/users/" + id).param("expand", "address"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address.length()").value(ADDRESSES_PER_USER));
+        log.info("Test testGetUserById_WithAddress passed");
+    }
+
+    /*
+     * Test reading a page of users without addresses with a single SELECT.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Query Budget - Get User Page")
+    void testGetUserPage() throws Exception {
+        log.info("Running testGetUserPage");
+        mockMvc.perform(get("/users").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(50))
+                .andExpect(jsonPath("$.content[0].address").doesNotExist());
+        log.info("Test testGetUserPage passed");
+    }
+
+    /*
+     * Test reading a page of users with their addresses in one SELECT of the users and one of the addresses.
+     */
+    @Test
+    @QueryBudget(select = 2)
+    @DisplayName("Query Budget - Get User Page With Addresses")
+    void testGetUserPage_WithAddress() throws Exception {
+        log.info("Running testGetUserPage_WithAddress");
+        mockMvc.perform(get("/users").param("limit", "50").param("expand", "address"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(50))
+                .andExpect(jsonPath("$.content[49].address.length()").value(ADDRESSES_PER_USER))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+        log.info("Test testGetUserPage_WithAddress passed");
+    }
+
+    /*
+     * Test reading a page of the addresses of a user with a single SELECT.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Query Budget - Get User Addresses")
+    void testGetUserAddresses() throws Exception {
+        log.info("Running testGetUserAddresses");
+        mockMvc.perform(get("/users/" + id + "/addresses").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+        log.info("Test testGetUserAddresses passed");
+    }
+
+    /*
+     * Test updating a user while removing most of its addresses with a single DELETE.
+     */
+    @Test
+    @QueryBudget(select = 1, insert = 1, update = 2, delete = 1)
+    @DisplayName("Query Budget - Update User Removing Addresses")
+    void testUpdateUser_RemovingAddresses() throws Exception {
+        log.info("Running testUpdateUser_RemovingAddresses");
+        mockMvc.perform(put("/users/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest("renamed", 1))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address.length()").value(1));
+        log.info("Test testUpdateUser_RemovingAddresses passed");
+    }
+
+    /*
+     * Test updating a user while adding addresses in one batched INSERT.
+     */
+    @Test
+    @QueryBudget(select = 2, insert = 1, update = 2)
+    @DisplayName("Query Budget - Update User Adding Addresses")
+    void testUpdateUser_AddingAddresses() throws Exception {
+        log.info("Running testUpdateUser_AddingAddresses");
+        mockMvc.perform(put("/users/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest("renamed", 20))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address.length()").value(20));
+        log.info("Test testUpdateUser_AddingAddresses passed");
+    }
+
+    /*
+     * Test deleting a user and its addresses, after locking it and reading the IDs of the addresses to evict.
+     */
+    @Test
+    @QueryBudget(select = 2, insert = 1, delete = 2)
+    @DisplayName("Query Budget - Delete User")
+    void testDeleteUser() throws Exception {
+        log.info("Running testDeleteUser");
+        mockMvc.perform(delete("/users/" + id))
+                .andExpect(status().isNoContent());
+        log.info("Test testDeleteUser passed");
+    }
+
+    /*
+     * Test upserting a user by email with a single upserting INSERT.
+     */
+    @Test
+    @QueryBudget(select = 1, insert = 1)
+    @DisplayName("Query Budget - Upsert User By Email")
+    void testUpsertUser() throws Exception {
+        log.info("Running testUpsertUser");
+        mockMvc.perform(put("/users/by-email/user0@example.com")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserUpsertRequest("user0@example.com", "renamed"))))
+                .andExpect(status().isNoContent());
+        log.info("Test testUpsertUser passed");
+    }
+
+    /*
+     * Test upserting a batch of users by email with a single batched upserting INSERT.
+     */
+    @Test
+    @QueryBudget(select = 1, insert = 1)
+    @DisplayName("Query Budget - Upsert Users By Email")
+    void testUpsertUsers() throws Exception {
+        log.info("Running testUpsertUsers");
+        List<UserUpsertRequest> requests = IntStream.range(0, 40)
+                .mapToObj(i -> new UserUpsertRequest("user" + (i * 2) + "@example.com", "synced" + i))
+                .toList();
+        mockMvc.perform(put("/users/by-email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.written").value(40));
+        log.info("Test testUpsertUsers passed");
+    }
+
+    /*
+     * Test that deleting an unknown user stops after the SELECT locking it.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Query Budget - Delete Unknown User")
+    void testDeleteUser_NotFound() throws Exception {
+        log.info("Running testDeleteUser_NotFound");
+        mockMvc.perform(delete("/users/-1"))
+                .andExpect(status().isNotFound());
+        log.info("Test testDeleteUser_NotFound passed");
+    }
+
+    /*
+     * Returns a user request with the given name and number of addresses.
+     */
+    private static UserRequest userRequest(String name, int addresses) {
+        return new UserRequest(name, name + "@example.com", IntStream.range(0, addresses)
+                .mapToObj(i -> new AddressRequest(i + " Street", "City", "ST", "00000", "Country"))
+                .toList());
+    }
+}
@@ -0,0 +1,313 @@
+package com.sh.testcontainers_demo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sh.testcontainers_demo.config.UserProperties;
+import com.sh.testcontainers_demo.dto.AddressRequest;
+import com.sh.testcontainers_demo.dto.AddressResponse;
+import com.sh.testcontainers_demo.dto.BulkUserUpsertResponse;
+import com.sh.testcontainers_demo.dto.CursorPage;
+import com.sh.testcontainers_demo.dto.UserRequest;
+import com.sh.testcontainers_demo.dto.UserResponse;
+import com.sh.testcontainers_demo.dto.UserUpsertRequest;
+import com.sh.testcontainers_demo.exception.UserNotFoundException;
+import com.sh.testcontainers_demo.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for UserController.
+ * <p>
+ * This test class verifies the functionality of UserController endpoints,
+ * including creating, retrieving, updating, and deleting users.
+ * It uses MockMvc to simulate HTTP requests and Mockito to mock the UserService.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@WebMvcTest(UserController.class)
+class UserControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /*
+     * Test configuration to provide a mock UserService bean.
+     */
+    @TestConfiguration
+    static class MockConfig {
+        /*
+         * Provides a mock UserService bean for testing.
+         */
+        @Bean
+        public UserService userService() {
+            return Mockito.mock(UserService.class);
+        }
+
+        /*
+         * Provides the user properties with their default values.
+         */
+        @Bean
+        public UserProperties userProperties() {
+            return new UserProperties();
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserProperties userProperties;
+
+    private final UserRequest userRequest = new UserRequest("Name", "name@example.com",
+            List.of(new AddressRequest("Street", "City", "State", "12345", "Country")));
+
+    private final UserResponse userResponse = new UserResponse(1L, "Name", "name@example.com",
+            null, null, "creator", "modifier", List.of());
+
+    /*
+     * Test creating a new user.
+     */
+    @Test
+    @DisplayName("Test Create User")
+    void testCreateUser() throws Exception {
+        log.info("Running testCreateUser");
+        Mockito.when(userService.createUser(any(UserRequest.class))).thenReturn(userResponse);
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+        log.info("Test testCreateUser passed");
+    }
+
+    /*
+     * Test creating a user with invalid data.
+     * Verifies that the request is rejected before reaching the service.
+     */
+    @Test
+    @DisplayName("Test Create User - Invalid")
+    void testCreateUser_Invalid() throws Exception {
+        log.info("Running testCreateUser_Invalid");
+        Mockito.clearInvocations(userService);
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserRequest("Name", "not-an-email", List.of()))))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(userService);
+        log.info("Test testCreateUser_Invalid passed");
+    }
+
+    /*
+     * Test creating and updating a user with an invalid address.
+     * Verifies that the fields of each address are validated before reaching the service.
+     */
+    @Test
+    @DisplayName("Test Create User - Invalid Address")
+    void testCreateUser_InvalidAddress() throws Exception {
+        log.info("Running testCreateUser_InvalidAddress");
+        Mockito.clearInvocations(userService);
+        AddressRequest valid = new AddressRequest("Street", "City", "State", "12345", "Country");
+        for (AddressRequest invalid : List.of(new AddressRequest(" ", "City", "State", "12345", "Country"),
+                new AddressRequest(null, "City", "State", "12345", "Country"))) {
+            String content = objectMapper.writeValueAsString(new UserRequest("Name", "name@example.com", List.of(valid, invalid)));
+            mockMvc.perform(post("/users")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(content))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(put("/users/1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(content))
+                    .andExpect(status().isBadRequest());
+        }
+        Mockito.verifyNoInteractions(userService);
+        log.info("Test testCreateUser_InvalidAddress passed");
+    }
+
+    /*
+     * Test creating a user with an email that is already taken.
+     */
+    @Test
+    @DisplayName("Test Create User - Duplicate Email")
+    void testCreateUser_DuplicateEmail() throws Exception {
+        log.info("Running testCreateUser_DuplicateEmail");
+        Mockito.when(userService.createUser(any(UserRequest.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isConflict());
+        Mockito.reset(userService);
+        log.info("Test testCreateUser_DuplicateEmail passed");
+    }
+
+    /*
+     * Test retrieving a user by ID, found and not found.
+     * Verifies that the addresses are only requested with expand=address.
+     */
+    @Test
+    @DisplayName("Test Get User By ID")
+    void testGetUserById() throws Exception {
+        log.info("Running testGetUserById");
+        UserResponse withoutAddress = new UserResponse(1L, "Name", "name@example.com", null, null, null, null, null);
+        Mockito.when(userService.getUserById(1L, false)).thenReturn(withoutAddress);
+        Mockito.when(userService.getUserById(1L, true)).thenReturn(userResponse);
+        Mockito.when(userService.getUserById(99L, false)).thenThrow(new UserNotFoundException("User not found with id: 99"));
+        mockMvc.perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("name@example.com"))
+                .andExpect(jsonPath("$.address").doesNotExist());
+        mockMvc.perform(get("/users/1").param("expand", "address"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address").isArray());
+        mockMvc.perform(get("/users/1").param("expand", "orders"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/99"))
+                .andExpect(status().isNotFound());
+        log.info("Test testGetUserById passed");
+    }
+
+    /*
+     * Test retrieving a page of users.
+     * Verifies that the limit defaults and is clamped, and that invalid limits are rejected.
+     */
+    @Test
+    @DisplayName("Test Get User Page")
+    void testGetUserPage() throws Exception {
+        log.info("Running testGetUserPage");
+        UserProperties.Pagination pagination = userProperties.getPagination();
+        Mockito.when(userService.getUserPage(null, pagination.getDefaultLimit(), false))
+                .thenReturn(new CursorPage<>(List.of(userResponse), "1"));
+        Mockito.when(userService.getUserPage(1L, pagination.getMaxLimit(), true))
+                .thenReturn(new CursorPage<>(List.of(), null));
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("1"));
+        mockMvc.perform(get("/users").param("after", "1").param("limit", String.valueOf(pagination.getMaxLimit() + 1))
+                        .param("expand", "address"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0));
+        mockMvc.perform(get("/users").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        log.info("Test testGetUserPage passed");
+    }
+
+    /*
+     * Test retrieving a page of the addresses of a user.
+     * Verifies that the limit defaults and that an unknown user is not found.
+     */
+    @Test
+    @DisplayName("Test Get User Addresses")
+    void testGetUserAddresses() throws Exception {
+        log.info("Running testGetUserAddresses");
+        AddressResponse address = new AddressResponse(5L, "Street", "City", "State", "12345", "Country",
+                null, null, null, null, 0L);
+        Mockito.when(userService.getUserAddressPage(1L, null, userProperties.getPagination().getDefaultLimit()))
+                .thenReturn(new CursorPage<>(List.of(address), "5"));
+        Mockito.when(userService.getUserAddressPage(99L, 5L, 10))
+                .thenThrow(new UserNotFoundException("User not found with id: 99"));
+        mockMvc.perform(get("/users/1/addresses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(5))
+                .andExpect(jsonPath("$.nextCursor").value("5"));
+        mockMvc.perform(get("/users/99/addresses").param("after", "5").param("limit", "10"))
+                .andExpect(status().isNotFound());
+        log.info("Test testGetUserAddresses passed");
+    }
+
+    /*
+     * Test updating a user.
+     */
+    @Test
+    @DisplayName("Test Update User")
+    void testUpdateUser() throws Exception {
+        log.info("Running testUpdateUser");
+        Mockito.when(userService.updateUser(Mockito.eq(1L), any(UserRequest.class))).thenReturn(userResponse);
+        mockMvc.perform(put("/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Name"));
+        log.info("Test testUpdateUser passed");
+    }
+
+    /*
+     * Test upserting a user by email.
+     * Verifies that the email in the body must match the path and be valid.
+     */
+    @Test
+    @DisplayName("Test Upsert User")
+    void testUpsertUser() throws Exception {
+        log.info("Running testUpsertUser");
+        UserUpsertRequest request = new UserUpsertRequest("name@example.com", "Name");
+        mockMvc.perform(put("/users/by-email/name@example.com")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNoContent());
+        Mockito.verify(userService).upsertUser(request);
+        mockMvc.perform(put("/users/by-email/other@example.com")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/users/by-email/not-an-email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserUpsertRequest("not-an-email", "Name"))))
+                .andExpect(status().isBadRequest());
+        log.info("Test testUpsertUser passed");
+    }
+
+    /*
+     * Test upserting many users by email.
+     * Verifies that a request with an invalid user is rejected before reaching the service.
+     */
+    @Test
+    @DisplayName("Test Upsert Users")
+    void testUpsertUsers() throws Exception {
+        log.info("Running testUpsertUsers");
+        List<UserUpsertRequest> requests = List.of(new UserUpsertRequest("a@example.com", "A"),
+                new UserUpsertRequest("b@example.com", "B"));
+        Mockito.when(userService.upsertUsers(requests)).thenReturn(new BulkUserUpsertResponse(2, 1));
+        mockMvc.perform(put("/users/by-email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.written").value(1));
+        mockMvc.perform(put("/users/by-email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new UserUpsertRequest("a@example.com", "")))))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(userService, Mockito.times(1)).upsertUsers(any());
+        log.info("Test testUpsertUsers passed");
+    }
+
+    /*
+     * Test deleting a user.
+     */
+    @Test
+    @DisplayName("Test Delete User")
+    void testDeleteUser() throws Exception {
+        log.info("Running testDeleteUser");
+        mockMvc.perform(delete("/users/1"))
+                .andExpect(status().isNoContent());
+        Mockito.verify(userService).deleteUser(1L);
+        log.info("Test testDeleteUser passed");
+    }
+}
@@ -0,0 +1,81 @@
+package com.sh.testcontainers_demo.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the AddressPatchRequest record class.
+ * <p>
+ * This test class verifies the JSON Merge Patch handling of AddressPatchRequest,
+ * including absent fields and validation constraints.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+class AddressPatchRequestTest {
+    private final Validator validator;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public AddressPatchRequestTest() {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            validator = factory.getValidator();
+        }
+    }
+
+    /*
+     * Test that absent fields are deserialized as null.
+     */
+    @Test
+    @DisplayName("Test AddressPatchRequest - Absent Fields")
+    void testAbsentFields() throws Exception {
+        log.info("Running testAbsentFields");
+        AddressPatchRequest dto = objectMapper.readValue("{\"zipCode\":\"62704\"}", AddressPatchRequest.class);
+        assertThat(dto.zipCode()).isEqualTo("62704");
+        assertThat(dto.street()).isNull();
+        assertThat(dto.city()).isNull();
+        assertThat(dto.state()).isNull();
+        assertThat(dto.country()).isNull();
+        assertThat(validator.validate(dto)).isEmpty();
+        log.info("Test testAbsentFields passed");
+    }
+
+    /*
+     * Test validation constraints on AddressPatchRequest fields with blank values.
+     */
+    @Test
+    @DisplayName("Test AddressPatchRequest Validation - Blank Fields")
+    void testValidationBlankFields() {
+        log.info("Running testValidationBlankFields");
+        AddressPatchRequest dto = new AddressPatchRequest("", " ", "", "", "");
+        Set<ConstraintViolation<AddressPatchRequest>> violations = validator.validate(dto);
+        assertThat(violations).hasSize(5);
+        log.info("Test testValidationBlankFields passed");
+    }
+
+    /*
+     * Test that values spanning several lines are accepted and that only blank ones are rejected.
+     */
+    @Test
+    @DisplayName("Test AddressPatchRequest Validation - Multiline Fields")
+    void testValidationMultilineFields() {
+        log.info("Running testValidationMultilineFields");
+        AddressPatchRequest dto = new AddressPatchRequest("1 Main St\nUnit 2", "Spring\r\nfield", null, null, null);
+        assertThat(validator.validate(dto)).isEmpty();
+        Set<ConstraintViolation<AddressPatchRequest>> violations =
+                validator.validate(new AddressPatchRequest("\n", "\r\n\t", null, null, null));
+        assertThat(violations).extracting(ConstraintViolation::getMessage)
+                .containsExactlyInAnyOrder("Street cannot be blank", "City cannot be blank");
+        log.info("Test testValidationMultilineFields passed");
+    }
+}
@@ -38,9 +38,11 @@ class AddressResponseTest {
                 now,
                 now,
                 "creator",
-                "modifier"
+                "modifier",
+                0L
         );
         assertThat(dto.id()).isEqualTo(1L);
+        assertThat(dto.version()).isZero();
         assertThat(dto.street()).isEqualTo("123 Main St");
         assertThat(dto.city()).isEqualTo("Springfield");
         assertThat(dto.state()).isEqualTo("IL");
@@ -61,8 +63,8 @@ class AddressResponseTest {
     void testAddressResponseEquality() {
         log.info("Running testAddressResponseEquality");
         Instant now = Instant.now();
-        AddressResponse dto1 = new AddressResponse(1L, "A", "B", "C", "D", "E", now, now, "F", "G");
-        AddressResponse dto2 = new AddressResponse(1L, "A", "B", "C", "D", "E", now, now, "F", "G");
+        AddressResponse dto1 = new AddressResponse(1L, "A", "B", "C", "D", "E", now, now, "F", "G", 0L);
+        AddressResponse dto2 = new AddressResponse(1L, "A", "B", "C", "D", "E", now, now, "F", "G", 0L);
         assertThat(dto1).isEqualTo(dto2);
         assertThat(dto1.hashCode()).hasSameHashCodeAs(dto2.hashCode());
         log.info("Test testAddressResponseEquality passed");
@@ -0,0 +1,50 @@
+package com.sh.testcontainers_demo.dto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the ChangeCursor record class.
+ * <p>
+ * This test class verifies that cursors survive encoding and that malformed
+ * tokens are rejected.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+class ChangeCursorTest {
+
+    /*
+     * Test that a decoded cursor equals the encoded one, down to the nanosecond.
+     */
+    @Test
+    @DisplayName("Test ChangeCursor Round Trip")
+    void testRoundTrip() {
+        log.info("Running testRoundTrip");
+        ChangeCursor cursor = new ChangeCursor(Instant.parse("2024-01-01T10:15:30.123456789Z"), 42L);
+        String token = cursor.encode();
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(ChangeCursor.decode(token)).isEqualTo(cursor);
+        log.info("Test testRoundTrip passed");
+    }
+
+    /*
+     * Test that tokens not produced by encode are rejected.
+     */
+    @Test
+    @DisplayName("Test ChangeCursor Malformed")
+    void testMalformed() {
+        log.info("Running testMalformed");
+        assertThatThrownBy(() -> ChangeCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ChangeCursor.decode("bm8tc2VwYXJhdG9y")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ChangeCursor.decode("MjAyNC8x")).isInstanceOf(IllegalArgumentException.class);
+        log.info("Test testMalformed passed");
+    }
+}
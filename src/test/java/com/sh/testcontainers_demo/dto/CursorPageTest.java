@@ -0,0 +1,62 @@
+package com.sh.testcontainers_demo.dto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the CursorPage record class.
+ * <p>
+ * This test class verifies how a page and its next cursor are built from the rows
+ * read with one row more than the page size.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+class CursorPageTest {
+
+    /*
+     * Test that the extra row is dropped and the cursor points at the last row kept.
+     */
+    @Test
+    @DisplayName("Test CursorPage Of - Further Page")
+    void testOf_FurtherPage() {
+        log.info("Running testOf_FurtherPage");
+        CursorPage<Long> page = CursorPage.of(List.of(3L, 5L, 8L), 2, Function.identity());
+        assertThat(page.content()).containsExactly(3L, 5L);
+        assertThat(page.nextCursor()).isEqualTo("5");
+        log.info("Test testOf_FurtherPage passed");
+    }
+
+    /*
+     * Test that a page holding every remaining row has no next cursor.
+     */
+    @Test
+    @DisplayName("Test CursorPage Of - Last Page")
+    void testOf_LastPage() {
+        log.info("Running testOf_LastPage");
+        assertThat(CursorPage.of(List.of(3L, 5L), 2, Function.identity()))
+                .isEqualTo(new CursorPage<>(List.of(3L, 5L), null));
+        assertThat(CursorPage.of(List.<Long>of(), 2, Function.identity()))
+                .isEqualTo(new CursorPage<>(List.of(), null));
+        log.info("Test testOf_LastPage passed");
+    }
+
+    /*
+     * Test that the first page starts before every generated ID.
+     */
+    @Test
+    @DisplayName("Test CursorPage Start After")
+    void testStartAfter() {
+        log.info("Running testStartAfter");
+        assertThat(CursorPage.startAfter(null)).isZero();
+        assertThat(CursorPage.startAfter(42L)).isEqualTo(42L);
+        log.info("Test testStartAfter passed");
+    }
+}
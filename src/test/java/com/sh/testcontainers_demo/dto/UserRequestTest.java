@@ -151,4 +151,19 @@ class UserRequestTest {
             log.info("testUserRequestValidationEmptyAddressList Violation: {}", violation.getMessage());
         }
     }
+
+    /*
+     * Test that the fields of each address in the list are validated as well.
+     */
+    @Test
+    @DisplayName("Test UserRequest Validation - Invalid Address")
+    void testUserRequestValidationInvalidAddress() {
+        log.info("Running testUserRequestValidationInvalidAddress");
+        UserRequest dto = new UserRequest("John Doe", "john@example.com",
+                List.of(new AddressRequest(" ", "City", "State", "12345", "Country")));
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(dto);
+        assertThat(violations).extracting(violation -> violation.getPropertyPath().toString())
+                .containsExactly("address[0].street");
+        log.info("Test testUserRequestValidationInvalidAddress passed");
+    }
 }
@@ -39,7 +39,8 @@ class UserResponseTest {
                 now,
                 now,
                 "creator",
-                "modifier"
+                "modifier",
+                0L
         );
         UserResponse user = new UserResponse(
                 1L,
@@ -70,7 +71,7 @@ class UserResponseTest {
     void testUserResponseEquality() {
         log.info("Running testUserResponseEquality");
         Instant now = Instant.now();
-        AddressResponse address = new AddressResponse(2L, "A", "B", "C", "D", "E", now, now, "F", "G");
+        AddressResponse address = new AddressResponse(2L, "A", "B", "C", "D", "E", now, now, "F", "G", 0L);
         UserResponse user1 = new UserResponse(1L, "N", "E", now, now, "C", "M", List.of(address));
         UserResponse user2 = new UserResponse(1L, "N", "E", now, now, "C", "M", List.of(address));
         assertThat(user1).isEqualTo(user2);
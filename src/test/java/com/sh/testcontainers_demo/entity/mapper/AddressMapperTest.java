@@ -1,8 +1,10 @@
 package com.sh.testcontainers_demo.entity.mapper;
 
+import com.sh.testcontainers_demo.dto.AddressPatchRequest;
 import com.sh.testcontainers_demo.dto.AddressRequest;
 import com.sh.testcontainers_demo.dto.AddressResponse;
 import com.sh.testcontainers_demo.entity.Address;
+import com.sh.testcontainers_demo.entity.User;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,6 +48,7 @@ class AddressMapperTest {
                 .updatedAt(now)
                 .createdBy("creator")
                 .lastModifiedBy("modifier")
+                .version(2L)
                 .build();
         AddressResponse dto = mapper.toDto(address);
         log.info("Mapped Address to AddressResponse: {}", dto);
@@ -59,6 +62,7 @@ class AddressMapperTest {
         assertThat(dto.updatedAt()).isEqualTo(address.getUpdatedAt());
         assertThat(dto.createdBy()).isEqualTo(address.getCreatedBy());
         assertThat(dto.lastModifiedBy()).isEqualTo(address.getLastModifiedBy());
+        assertThat(dto.version()).isEqualTo(address.getVersion());
         log.info("Test testToDto passed");
     }
 
@@ -162,4 +166,63 @@ class AddressMapperTest {
         assertThat(address.getCountry()).isEmpty();
         log.info("Test testToEntityWithDefaultRequest passed");
     }
+
+    /**
+     * Test updating an existing Address entity from an AddressRequest.
+     * Verifies that request fields are copied and identity, audit fields and user are kept.
+     */
+    @Test
+    void testUpdateEntity() {
+        log.info("Running testUpdateEntity");
+        Instant now = Instant.now();
+        User user = User.builder().id(5L).build();
+        Address address = Address.builder()
+                .id(1L)
+                .street("Old St")
+                .city("Old City")
+                .state("OS")
+                .zipCode("00000")
+                .country("Old Country")
+                .createdAt(now)
+                .createdBy("creator")
+                .user(user)
+                .build();
+        AddressRequest dto = new AddressRequest("456 Elm St", "Metropolis", "NY", "10001", "USA");
+        mapper.updateEntity(dto, address);
+        assertThat(address.getId()).isEqualTo(1L);
+        assertThat(address.getStreet()).isEqualTo(dto.street());
+        assertThat(address.getCity()).isEqualTo(dto.city());
+        assertThat(address.getState()).isEqualTo(dto.state());
+        assertThat(address.getZipCode()).isEqualTo(dto.zipCode());
+        assertThat(address.getCountry()).isEqualTo(dto.country());
+        assertThat(address.getCreatedAt()).isEqualTo(now);
+        assertThat(address.getCreatedBy()).isEqualTo("creator");
+        assertThat(address.getUser()).isSameAs(user);
+        log.info("Test testUpdateEntity passed");
+    }
+
+    /**
+     * Test patching an existing Address entity from an AddressPatchRequest.
+     * Verifies that only the non-null patch fields are applied.
+     */
+    @Test
+    void testPatchEntity() {
+        log.info("Running testPatchEntity");
+        Address address = Address.builder()
+                .id(1L)
+                .street("Old St")
+                .city("Old City")
+                .state("OS")
+                .zipCode("00000")
+                .country("Old Country")
+                .build();
+        mapper.patchEntity(new AddressPatchRequest(null, "Metropolis", null, "10001", null), address);
+        assertThat(address.getId()).isEqualTo(1L);
+        assertThat(address.getStreet()).isEqualTo("Old St");
+        assertThat(address.getCity()).isEqualTo("Metropolis");
+        assertThat(address.getState()).isEqualTo("OS");
+        assertThat(address.getZipCode()).isEqualTo("10001");
+        assertThat(address.getCountry()).isEqualTo("Old Country");
+        log.info("Test testPatchEntity passed");
+    }
 }
@@ -102,6 +102,7 @@ class UserMapperTest {
         assertThat(user.getAddress()).hasSize(1);
         Address address = user.getAddress().getFirst();
         assertThat(address.getStreet()).isEqualTo(addressRequest.street());
+        assertThat(address.getUser()).isSameAs(user);
         log.info("Test testToEntity passed");
     }
 
@@ -197,4 +198,24 @@ class UserMapperTest {
         assertThat(user.getAddress()).isEmpty();
         log.info("Test testToEntityWithEmptyAddressList passed");
     }
+
+    /*
+     * Test copying a UserRequest onto an existing User entity.
+     * Verifies that the name and email are copied and the addresses are left alone.
+     */
+    @Test
+    void testUpdateEntity() {
+        log.info("Running testUpdateEntity");
+        Address address = Address.builder().id(1L).street("123 Main St").build();
+        User user = User.builder().id(10L).name("Old").email("old@example.com").address(List.of(address)).build();
+        UserRequest dto = new UserRequest("New", "new@example.com",
+                List.of(new AddressRequest("456 Elm St", "Metropolis", "NY", "10001", "USA")));
+        mapper.updateEntity(dto, user);
+        assertThat(user.getId()).isEqualTo(10L);
+        assertThat(user.getName()).isEqualTo("New");
+        assertThat(user.getEmail()).isEqualTo("new@example.com");
+        assertThat(user.getAddress()).containsExactly(address);
+        assertThat(address.getStreet()).isEqualTo("123 Main St");
+        log.info("Test testUpdateEntity passed");
+    }
 }
@@ -1,13 +1,37 @@
 package com.sh.testcontainers_demo.repository;
 
+import com.sh.testcontainers_demo.dto.AddressResponse;
+import com.sh.testcontainers_demo.dto.CursorPage;
+import com.sh.testcontainers_demo.dto.AddressSearchCriteria;
 import com.sh.testcontainers_demo.entity.Address;
+import com.sh.testcontainers_demo.entity.User;
+import com.sh.testcontainers_demo.support.QueryBudget;
+import com.sh.testcontainers_demo.support.SqlStatementCounter;
+import com.sh.testcontainers_demo.support.SqlStatementCounting;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -21,12 +45,16 @@ import static org.assertj.core.api.Assertions.assertThat;
  * @author Shailesh Halor
  */
 @Slf4j
-@DataJpaTest
+@SqlStatementCounting
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class AddressRepositoryTest {
 
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     /*
      * Test saving and retrieving an Address entity.
      */
@@ -83,4 +111,468 @@ class AddressRepositoryTest {
         Optional<Address> found = addressRepository.findById(saved.getId());
         assertThat(found).isNotPresent();
     }
+
+    /*
+     * Test keyset pagination of Addresses by ID, selected as response DTOs.
+     */
+    @Test
+    @DisplayName("Should find Address page after cursor")
+    void testFindResponsesByIdGreaterThan() {
+        List<Address> saved = addressRepository.saveAll(List.of(
+                Address.builder().street("1 St").city("City").state("ST").zipCode("00001").country("Country").build(),
+                Address.builder().street("2 St").city("City").state("ST").zipCode("00002").country("Country").build(),
+                Address.builder().street("3 St").city("City").state("ST").zipCode("00003").country("Country").build()));
+        Long first = saved.getFirst().getId();
+        List<AddressResponse> page = addressRepository.findResponsesByIdGreaterThan(first, Limit.of(1));
+        assertThat(page).extracting(AddressResponse::id).containsExactly(saved.get(1).getId());
+        List<AddressResponse> rest = addressRepository.findResponsesByIdGreaterThan(saved.get(1).getId(), Limit.of(5));
+        assertThat(rest).extracting(AddressResponse::id).containsExactly(saved.get(2).getId());
+    }
+
+    /*
+     * Test streaming all Address entities in ID order.
+     */
+    @Test
+    @DisplayName("Should stream all Addresses ordered by ID")
+    void testStreamAllByOrderByIdAsc() {
+        List<Address> saved = addressRepository.saveAll(List.of(
+                Address.builder().street("1 St").city("City").state("ST").zipCode("00001").country("Country").build(),
+                Address.builder().street("2 St").city("City").state("ST").zipCode("00002").country("Country").build()));
+        try (Stream<Address> stream = addressRepository.streamAllByOrderByIdAsc()) {
+            assertThat(stream.map(Address::getId)).containsExactly(saved.get(0).getId(), saved.get(1).getId());
+        }
+    }
+
+    /*
+     * Test that saving many Address entities uses JDBC batching.
+     * Verifies that the number of JDBC statements is far below one per row.
+     */
+    @Test
+    @DisplayName("Should batch Address inserts")
+    void testSaveAllIsBatched() {
+        Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Address> addresses = IntStream.range(0, 200)
+                .<Address>mapToObj(i -> Address.builder().street(i + " St").city("City").state("ST").zipCode("00000").country("Country").build())
+                .toList();
+        addressRepository.saveAll(addresses);
+        addressRepository.flush();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(200);
+        // 200 rows at a batch size of 50 plus the pooled sequence calls
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+    }
+
+    /*
+     * Test that modifying a managed Address only issues an UPDATE when a value changed.
+     */
+    @Test
+    @DisplayName("Should skip UPDATE for unchanged Address")
+    void testUnchangedAddressIsNotUpdated() {
+        Address saved = addressRepository.saveAndFlush(Address.builder()
+                .street("Same St").city("City").state("ST").zipCode("00000").country("Country").build());
+        Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        saved.setStreet("Same St");
+        saved.setCity("City");
+        addressRepository.flush();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        saved.setCity("Other City");
+        addressRepository.flush();
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+    }
+
+    /*
+     * Test deleting an Address by ID with a single statement.
+     * Verifies the affected row count and that exactly one JDBC statement is executed.
+     */
+    @Test
+    @DisplayName("Should delete Address with one statement")
+    void testDeleteAddressById() {
+        Address saved = addressRepository.saveAndFlush(Address.builder()
+                .street("Delete St").city("City").state("ST").zipCode("00000").country("Country").build());
+        testEntityManager.clear();
+        Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(addressRepository.deleteAddressById(saved.getId())).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(addressRepository.deleteAddressById(saved.getId())).isZero();
+        assertThat(addressRepository.findById(saved.getId())).isNotPresent();
+    }
+
+    /*
+     * Test retrieving only the version of an Address, which is incremented by each update.
+     */
+    @Test
+    @DisplayName("Should find Address version")
+    void testFindVersionById() {
+        Address saved = addressRepository.saveAndFlush(Address.builder()
+                .street("Version St").city("City").state("ST").zipCode("00000").country("Country").build());
+        assertThat(addressRepository.findVersionById(saved.getId())).contains(0L);
+        saved.setStreet("New Version St");
+        addressRepository.flush();
+        assertThat(addressRepository.findVersionById(saved.getId())).contains(1L);
+        assertThat(addressRepository.findVersionById(-1L)).isEmpty();
+    }
+
+    /*
+     * Test deleting an Address only when it still has the expected version.
+     */
+    @Test
+    @DisplayName("Should delete Address by ID and version")
+    void testDeleteAddressByIdAndVersion() {
+        Address saved = addressRepository.saveAndFlush(Address.builder()
+                .street("Versioned St").city("City").state("ST").zipCode("00000").country("Country").build());
+        assertThat(addressRepository.deleteAddressByIdAndVersion(saved.getId(), saved.getVersion() + 1)).isZero();
+        assertThat(addressRepository.deleteAddressByIdAndVersion(saved.getId(), saved.getVersion())).isEqualTo(1);
+        assertThat(addressRepository.findById(saved.getId())).isNotPresent();
+    }
+
+    /*
+     * Test that listing Addresses does not load their Users, however many Users there are.
+     * Verifies that the list runs one query and that touching the Users loads them in one batch.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10})
+    @QueryBudget(select = 2)
+    @DisplayName("Should list Addresses without loading Users")
+    void testFindAllDoesNotLoadUsers(int users) {
+        persistUsersWithAddresses(users, 2);
+        Statistics statistics = statistics();
+        List<Address> addresses = addressRepository.findAll();
+        assertThat(addresses).hasSize(users * 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(SqlStatementCounter.current()).isEqualTo(new SqlStatementCounter.QueryCount(1, 0, 0, 0));
+        assertThat(addresses).allMatch(address -> !Hibernate.isInitialized(address.getUser()));
+        addresses.forEach(address -> address.getUser().getName());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    /*
+     * Test that finding an Address by ID does not load its User.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Should find Address without loading User")
+    void testFindByIdDoesNotLoadUser() {
+        Long id = persistUsersWithAddresses(1, 1).getFirst().getAddress().getFirst().getId();
+        Statistics statistics = statistics();
+        Address found = addressRepository.findById(id).orElseThrow();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(Hibernate.isInitialized(found.getUser())).isFalse();
+    }
+
+    /*
+     * Test that the Address collections of several Users are loaded in one batch.
+     */
+    @Test
+    @QueryBudget(select = 2)
+    @DisplayName("Should batch load User Addresses")
+    void testUserAddressesAreBatchLoaded() {
+        List<Long> ids = persistUsersWithAddresses(10, 2).stream().map(User::getId).toList();
+        Statistics statistics = statistics();
+        List<User> users = ids.stream()
+                .map(id -> testEntityManager.getEntityManager().getReference(User.class, id))
+                .toList();
+        users.getFirst().getName();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        users.forEach(user -> assertThat(user.getAddress()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    /*
+     * Persists the given number of Users, each with the given number of Addresses,
+     * then clears the persistence context, the statistics and the statement counts.
+     */
+    private List<User> persistUsersWithAddresses(int users, int addressesPerUser) {
+        List<User> persisted = IntStream.range(0, users).mapToObj(i -> {
+            User user = testEntityManager.persist(User.builder().name("User " + i).email("user" + i + "@example.com").build());
+            user.setAddress(IntStream.range(0, addressesPerUser)
+                    .<Address>mapToObj(j -> testEntityManager.persist(Address.builder().street(j + " St").city("City")
+                            .state("ST").zipCode("00000").country("Country").user(user).build()))
+                    .toList());
+            return user;
+        }).toList();
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics().clear();
+        SqlStatementCounter.reset();
+        return persisted;
+    }
+
+    /*
+     * Returns the Hibernate statistics of the test entity manager factory.
+     */
+    private Statistics statistics() {
+        return testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /*
+     * Test selecting an Address straight into a response DTO.
+     * Verifies that all columns are mapped and that no entity is loaded.
+     */
+    @Test
+    @QueryBudget(select = 2)
+    @DisplayName("Should find Address response without loading entity")
+    void testFindResponseById() {
+        Address saved = testEntityManager.persistFlushFind(Address.builder()
+                .street("Projected St").city("City").state("ST").zipCode("00000").country("Country").build());
+        testEntityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+        SqlStatementCounter.reset();
+        AddressResponse response = addressRepository.findResponseById(saved.getId()).orElseThrow();
+        assertThat(response).isEqualTo(new AddressResponse(saved.getId(), "Projected St", "City", "ST", "00000", "Country",
+                saved.getCreatedAt(), saved.getUpdatedAt(), saved.getCreatedBy(), saved.getLastModifiedBy(), saved.getVersion()));
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(addressRepository.findResponseById(-1L)).isEmpty();
+    }
+
+    /*
+     * Test selecting all Addresses straight into response DTOs, ordered by ID.
+     */
+    @Test
+    @DisplayName("Should find all Address responses without loading entities")
+    void testFindAllResponses() {
+        List<Address> saved = addressRepository.saveAllAndFlush(List.of(
+                Address.builder().street("1 St").city("City").state("ST").zipCode("00001").country("Country").build(),
+                Address.builder().street("2 St").city("City").state("ST").zipCode("00002").country("Country").build()));
+        testEntityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+        assertThat(addressRepository.findAllResponses()).extracting(AddressResponse::id)
+                .containsExactly(saved.get(0).getId(), saved.get(1).getId());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    /*
+     * Test searching Addresses with the combined specifications.
+     * Verifies that only the filters present are applied and that the cursor is honoured.
+     */
+    @Test
+    @DisplayName("Should find Addresses matching search criteria")
+    void testFindAllMatching() {
+        List<Address> saved = addressRepository.saveAllAndFlush(List.of(
+                Address.builder().street("1 St").city("Springfield").state("IL").zipCode("62704").country("USA").build(),
+                Address.builder().street("2 St").city("Chicago").state("IL").zipCode("60601").country("USA").build(),
+                Address.builder().street("3 St").city("Springfield").state("MA").zipCode("01103").country("USA").build(),
+                Address.builder().street("4 St").city("Toronto").state("ON").zipCode("M5H").country("Canada").build()));
+        assertThat(addressRepository.findAll(AddressSpecifications.matching(new AddressSearchCriteria(null, "IL", "USA", null))))
+                .extracting(Address::getStreet).containsExactlyInAnyOrder("1 St", "2 St");
+        assertThat(addressRepository.findAll(AddressSpecifications.matching(new AddressSearchCriteria("Springfield", null, null, null))))
+                .extracting(Address::getStreet).containsExactlyInAnyOrder("1 St", "3 St");
+        assertThat(addressRepository.findAll(AddressSpecifications.matching(new AddressSearchCriteria(null, null, null, "M5H"))))
+                .extracting(Address::getStreet).containsExactly("4 St");
+        assertThat(addressRepository.findAll(AddressSpecifications.matching(new AddressSearchCriteria(null, null, "USA", null))
+                .and(AddressSpecifications.idGreaterThan(saved.get(1).getId()))))
+                .extracting(Address::getStreet).containsExactly("3 St");
+        assertThat(addressRepository.findAll(AddressSpecifications.matching(new AddressSearchCriteria(null, null, null, null))))
+                .hasSize(4);
+    }
+
+    /*
+     * Test that the common search filter combinations are served by an index.
+     * Verifies with H2 EXPLAIN that the statements the search runs, for whole addresses and
+     * for selected fields, use the expected index instead of a table scan.
+     */
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "            |      | USA  |       | IDX_ADDRESS_COUNTRY_STATE_CITY",
+            "            | IL   | USA  |       | IDX_ADDRESS_COUNTRY_STATE_CITY",
+            "Springfield | IL   | USA  |       | IDX_ADDRESS_COUNTRY_STATE_CITY",
+            "Springfield |      |      |       | IDX_ADDRESS_CITY_STATE",
+            "Springfield | IL   |      |       | IDX_ADDRESS_CITY_STATE",
+            "            |      |      | 62704 | IDX_ADDRESS_ZIP_CODE",
+            "            |      | USA  | 62704 | IDX_ADDRESS_ZIP_CODE"
+    })
+    @DisplayName("Should use an index for search filters")
+    void testSearchFiltersUseIndex(String city, String state, String country, String zipCode, String index) {
+        Specification<Address> page = searchPage(new AddressSearchCriteria(city, state, country, zipCode));
+        SqlStatementCounter.reset();
+        addressRepository.findResponses(page, 11);
+        addressRepository.findFields(List.of("id", "street"), page, 11);
+        assertThat(SqlStatementCounter.statements()).hasSize(2).allSatisfy(sql ->
+                assertThat(explain(sql)).contains("PUBLIC." + index).doesNotContain("tableScan"));
+    }
+
+    /*
+     * Test that the search indexes end with the ID the search pages are ordered by.
+     * Verifies that the statement the search runs orders by the ID alone, that H2 EXPLAIN
+     * picks the index, and that the index declares exactly the filtered columns and then the ID.
+     * With the filtered columns fixed, PostgreSQL then reads the matches in ID order and stops
+     * at the LIMIT without sorting. H2 appends the primary key to every index by itself, but
+     * only skips the sort when the ORDER BY lists the leading index columns, so the plan here
+     * cannot show the sort being skipped.
+     */
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "Springfield | IL   | USA  |       | IDX_ADDRESS_COUNTRY_STATE_CITY | COUNTRY, STATE, CITY, ID",
+            "Springfield | IL   |      |       | IDX_ADDRESS_CITY_STATE         | CITY, STATE, ID",
+            "            |      |      | 62704 | IDX_ADDRESS_ZIP_CODE           | ZIP_CODE, ID"
+    })
+    @DisplayName("Should end the search indexes with the ID")
+    void testSearchIndexesEndWithId(String city, String state, String country, String zipCode, String index,
+                                    String indexColumns) {
+        SqlStatementCounter.reset();
+        addressRepository.findResponses(searchPage(new AddressSearchCriteria(city, state, country, zipCode)), 11);
+        assertThat(SqlStatementCounter.statements()).singleElement()
+                .satisfies(sql -> assertThat(sql).containsPattern(" order by (1|a1_0\\.id) fetch first "))
+                .satisfies(sql -> assertThat(explain(sql)).contains("PUBLIC." + index));
+        List<?> columns = testEntityManager.getEntityManager()
+                .createNativeQuery("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS"
+                        + " WHERE INDEX_NAME = :index ORDER BY ORDINAL_POSITION")
+                .setParameter("index", index)
+                .getResultList();
+        assertThat(columns).map(String::valueOf).containsExactly(indexColumns.split(", "));
+    }
+
+    /*
+     * Returns the specification of the first search page for the given filters, as built by the service.
+     */
+    private static Specification<Address> searchPage(AddressSearchCriteria criteria) {
+        return AddressSpecifications.matching(criteria).and(AddressSpecifications.idGreaterThan(CursorPage.startAfter(null)));
+    }
+
+    /*
+     * Returns the H2 plan of a captured statement, leaving its parameters unbound.
+     */
+    private String explain(String sql) {
+        return testEntityManager.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        });
+    }
+
+    /*
+     * Test selecting the Addresses with the given IDs in a single IN query.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Should find Address responses by IDs")
+    void testFindResponsesByIdIn() {
+        List<Address> saved = addressRepository.saveAllAndFlush(List.of(
+                Address.builder().street("1 St").city("City").state("ST").zipCode("00001").country("Country").build(),
+                Address.builder().street("2 St").city("City").state("ST").zipCode("00002").country("Country").build(),
+                Address.builder().street("3 St").city("City").state("ST").zipCode("00003").country("Country").build()));
+        SqlStatementCounter.reset();
+        assertThat(addressRepository.findResponsesByIdIn(List.of(saved.get(2).getId(), saved.get(0).getId(), -1L)))
+                .extracting(AddressResponse::street)
+                .containsExactlyInAnyOrder("3 St", "1 St");
+    }
+
+    /*
+     * Test selecting only some attributes of the Addresses matching a specification.
+     * Verifies that the SELECT clause lists only the requested columns.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Should find only requested Address fields")
+    void testFindFields() {
+        List<Address> saved = addressRepository.saveAllAndFlush(List.of(
+                Address.builder().street("1 St").city("Springfield").state("IL").zipCode("62704").country("USA").build(),
+                Address.builder().street("2 St").city("Chicago").state("IL").zipCode("60601").country("USA").build()));
+        SqlStatementCounter.reset();
+        List<Map<String, Object>> rows = addressRepository.findFields(List.of("zipCode", "id"),
+                AddressSpecifications.matching(new AddressSearchCriteria(null, "IL", null, null)), 10);
+        assertThat(rows).containsExactly(
+                Map.of("zipCode", "62704", "id", saved.get(0).getId()),
+                Map.of("zipCode", "60601", "id", saved.get(1).getId()));
+        assertThat(rows.getFirst().keySet()).containsExactly("zipCode", "id");
+        String select = SqlStatementCounter.statements().getFirst().toLowerCase();
+        assertThat(select.substring(0, select.indexOf(" from "))).contains("zip_code").doesNotContain("street", "city", "created");
+    }
+
+    /*
+     * Test reading changed Addresses after a (time, ID) cursor.
+     * Verifies the order, the tie break on the ID, the upper bound and the limit.
+     */
+    @Test
+    @DisplayName("Should find Address responses changed after cursor")
+    void testFindResponsesChangedAfter() {
+        Instant t1 = Instant.parse("2024-01-01T00:00:00Z");
+        Instant t2 = Instant.parse("2024-01-02T00:00:00Z");
+        List<Address> saved = addressRepository.saveAllAndFlush(IntStream.range(0, 4)
+                .<Address>mapToObj(i -> Address.builder().street(i + " St").city("City").state("ST").zipCode("00000").country("Country").build())
+                .toList());
+        setUpdatedAt(saved.get(0), t1);
+        setUpdatedAt(saved.get(1), t1);
+        setUpdatedAt(saved.get(2), t2);
+        setUpdatedAt(saved.get(3), Instant.parse("2024-01-03T00:00:00Z"));
+        Instant until = Instant.parse("2024-01-03T00:00:00Z");
+        assertThat(addressRepository.findResponsesChangedAfter(t1, saved.get(0).getId(), until, Limit.of(10)))
+                .extracting(AddressResponse::street)
+                .containsExactly("1 St", "2 St");
+        assertThat(addressRepository.findResponsesChangedAfter(t1, 0L, until, Limit.of(2)))
+                .extracting(AddressResponse::street)
+                .containsExactly("0 St", "1 St");
+    }
+
+    /*
+     * Test that the change feed query is served by the index on the update time.
+     */
+    @Test
+    @DisplayName("Should use an index for the change feed")
+    void testChangesUseIndex() {
+        String plan = (String) testEntityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN SELECT * FROM address WHERE updated_date > TIMESTAMP '2024-01-01 00:00:00' ORDER BY updated_date, id")
+                .getSingleResult();
+        assertThat(plan).contains("PUBLIC.IDX_ADDRESS_UPDATED_DATE").doesNotContain("tableScan");
+    }
+
+    /*
+     * Test selecting a keyset page of the Addresses of one User.
+     * Verifies that the Addresses of other Users are excluded and the cursor is honoured.
+     */
+    @Test
+    @QueryBudget(select = 1)
+    @DisplayName("Should find a page of Address responses by User")
+    void testFindResponsesByUserIdAndIdGreaterThan() {
+        List<User> users = persistUsersWithAddresses(2, 3);
+        List<Long> ids = users.getFirst().getAddress().stream().map(Address::getId).toList();
+        assertThat(addressRepository.findResponsesByUserIdAndIdGreaterThan(users.getFirst().getId(), ids.getFirst(), Limit.of(10)))
+                .extracting(AddressResponse::id)
+                .containsExactly(ids.get(1), ids.get(2));
+    }
+
+    /*
+     * Test deleting the Addresses of one User, read by their User, with a single DELETE statement.
+     * Verifies that the Addresses of other Users are kept.
+     */
+    @Test
+    @QueryBudget(select = 2, delete = 1)
+    @DisplayName("Should delete Addresses by ID")
+    void testDeleteAddressesByIdIn() {
+        List<User> users = persistUsersWithAddresses(2, 3);
+        List<Long> ids = addressRepository.findIdsByUserId(users.getFirst().getId());
+        assertThat(ids).hasSize(3);
+        assertThat(addressRepository.deleteAddressesByIdIn(ids)).isEqualTo(3);
+        assertThat(addressRepository.findAll()).extracting(address -> address.getUser().getId())
+                .containsOnly(users.getLast().getId());
+    }
+
+    /*
+     * Test that the addresses of a user are read through the index on the user ID.
+     */
+    @Test
+    @DisplayName("Should use an index for the Addresses of a User")
+    void testUserAddressesUseIndex() {
+        String plan = (String) testEntityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN SELECT * FROM address WHERE user_id = 1 AND id > 0 ORDER BY id")
+                .getSingleResult();
+        assertThat(plan).contains("PUBLIC.IDX_ADDRESS_USER_ID").doesNotContain("tableScan");
+    }
+
+    private void setUpdatedAt(Address address, Instant updatedAt) {
+        testEntityManager.getEntityManager()
+                .createQuery("update Address a set a.updatedAt = :updatedAt where a.id = :id")
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("id", address.getId())
+                .executeUpdate();
+    }
 }
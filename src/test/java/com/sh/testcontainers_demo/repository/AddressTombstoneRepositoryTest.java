@@ -0,0 +1,95 @@
+package com.sh.testcontainers_demo.repository;
+
+import com.sh.testcontainers_demo.entity.Address;
+import com.sh.testcontainers_demo.entity.AddressTombstone;
+import com.sh.testcontainers_demo.entity.User;
+import com.sh.testcontainers_demo.support.QueryBudget;
+import com.sh.testcontainers_demo.support.SqlStatementCounting;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the AddressTombstoneRepository interface.
+ * <p>
+ * This test class verifies recording tombstones and reading them back in change
+ * feed order using an in-memory database.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@SqlStatementCounting
+@DataJpaTest
+class AddressTombstoneRepositoryTest {
+
+    private static final Instant T1 = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant T2 = Instant.parse("2024-01-02T00:00:00Z");
+
+    @Autowired
+    private AddressTombstoneRepository addressTombstoneRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    /*
+     * Test that a tombstone is recorded with a single INSERT and no SELECT.
+     */
+    @Test
+    @QueryBudget(insert = 1)
+    @DisplayName("Should insert tombstone with one statement")
+    void testInsertTombstone() {
+        assertThat(addressTombstoneRepository.insertTombstone(7L, T1)).isEqualTo(1);
+    }
+
+    /*
+     * Test recording tombstones for many Addresses with a single INSERT ... SELECT.
+     * Verifies that only existing Addresses are recorded.
+     */
+    @Test
+    @DisplayName("Should insert tombstones for existing Addresses")
+    void testInsertTombstones() {
+        User user = testEntityManager.persist(User.builder().name("User").email("user@example.com").build());
+        Long first = persistAddress(user).getId();
+        Long second = persistAddress(user).getId();
+        persistAddress(testEntityManager.persist(User.builder().name("Other").email("other@example.com").build()));
+        testEntityManager.flush();
+        assertThat(addressTombstoneRepository.insertTombstones(List.of(first, second, -1L), T1)).isEqualTo(2);
+        assertThat(addressTombstoneRepository.findAll()).extracting(AddressTombstone::getAddressId)
+                .containsExactlyInAnyOrder(first, second);
+    }
+
+    /*
+     * Test reading tombstones after a (time, ID) cursor.
+     * Verifies the order, the tie break on the ID, the upper bound and the limit.
+     */
+    @Test
+    @DisplayName("Should find tombstones deleted after cursor")
+    void testFindDeletedAfter() {
+        addressTombstoneRepository.insertTombstone(2L, T1);
+        addressTombstoneRepository.insertTombstone(1L, T1);
+        addressTombstoneRepository.insertTombstone(3L, T2);
+        addressTombstoneRepository.insertTombstone(4L, Instant.parse("2024-01-03T00:00:00Z"));
+        Instant until = Instant.parse("2024-01-03T00:00:00Z");
+        assertThat(addressTombstoneRepository.findDeletedAfter(T1, 1L, until, Limit.of(10)))
+                .extracting(AddressTombstone::getAddressId)
+                .containsExactly(2L, 3L);
+        assertThat(addressTombstoneRepository.findDeletedAfter(T1, 0L, until, Limit.of(2)))
+                .extracting(AddressTombstone::getAddressId)
+                .containsExactly(1L, 2L);
+    }
+
+    private Address persistAddress(User user) {
+        return testEntityManager.persist(Address.builder().street("Street").city("City").state("ST")
+                .zipCode("00000").country("Country").user(user).build());
+    }
+}
@@ -6,10 +6,15 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
 
 /**
  * Integration tests for the UserRepository interface.
@@ -27,6 +32,9 @@ class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     /*
      * Test saving and retrieving a User entity.
      */
@@ -80,4 +88,62 @@ class UserRepositoryTest {
         assertThat(found).isNotPresent();
         log.info("Test testDeleteUser passed");
     }
+
+    /*
+     * Test deleting a User with a single DELETE statement.
+     * Verifies the affected row count for an existing and a missing User.
+     */
+    @Test
+    @DisplayName("Should delete User by ID without loading it")
+    void testDeleteUserById() {
+        log.info("Running testDeleteUserById");
+        User saved = userRepository.saveAndFlush(User.builder()
+                .name("Delete Me")
+                .email("delete@example.com")
+                .build());
+        assertThat(userRepository.deleteUserById(saved.getId())).isEqualTo(1);
+        assertThat(userRepository.findById(saved.getId())).isNotPresent();
+        assertThat(userRepository.deleteUserById(saved.getId())).isZero();
+        log.info("Test testDeleteUserById passed");
+    }
+
+    /*
+     * Test upserting Users by email with a single native statement.
+     * Verifies that unknown emails are inserted, known ones updated, and that a replay writes nothing.
+     */
+    @Test
+    @DisplayName("Should upsert Users by email")
+    void testUpsertByEmail() {
+        log.info("Running testUpsertByEmail");
+        User existing = userRepository.saveAndFlush(User.builder().name("Old Name").email("old@example.com").build());
+        List<User> users = List.of(
+                User.builder().name("New Name").email("old@example.com").build(),
+                User.builder().name("Jane Doe").email("jane@example.com").build());
+        assertThat(userRepository.upsertByEmail(users)).isEqualTo(2);
+        assertThat(userRepository.upsertByEmail(users)).isZero();
+        testEntityManager.clear();
+        assertThat(userRepository.findAll())
+                .extracting(User::getEmail, User::getName)
+                .containsExactlyInAnyOrder(
+                        tuple("old@example.com", "New Name"),
+                        tuple("jane@example.com", "Jane Doe"));
+        User updated = userRepository.findById(existing.getId()).orElseThrow();
+        assertThat(updated.getVersion()).isEqualTo(existing.getVersion() + 1);
+        assertThat(updated.getCreatedAt()).isCloseTo(existing.getCreatedAt(), within(1, ChronoUnit.MILLIS));
+        log.info("Test testUpsertByEmail passed");
+    }
+
+    /*
+     * Test that a User inserted by the upsert gets an ID that later persisted Users do not reuse.
+     */
+    @Test
+    @DisplayName("Should not reuse IDs of upserted Users")
+    void testUpsertByEmail_IdsNotReused() {
+        log.info("Running testUpsertByEmail_IdsNotReused");
+        userRepository.upsertByEmail(List.of(User.builder().name("Upserted").email("upserted@example.com").build()));
+        User saved = userRepository.saveAndFlush(User.builder().name("Saved").email("saved@example.com").build());
+        testEntityManager.clear();
+        assertThat(userRepository.findAll()).extracting(User::getId).doesNotHaveDuplicates().contains(saved.getId());
+        log.info("Test testUpsertByEmail_IdsNotReused passed");
+    }
 }
@@ -0,0 +1,131 @@
+package com.sh.testcontainers_demo.service;
+
+import com.sh.testcontainers_demo.config.AddressProperties;
+import com.sh.testcontainers_demo.dto.AddressResponse;
+import com.sh.testcontainers_demo.exception.AddressNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for AddressLoadCoalescer.
+ * <p>
+ * This test class verifies that concurrent loads of the same address share one call to
+ * AddressService, including its failure, and that coalescing can be switched off.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+class AddressLoadCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private final AddressService addressService = mock(AddressService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AddressResponse response = new AddressResponse(1L, "Street", "City", "State", "12345", "Country", null, null, "creator", "modifier", 0L);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    /*
+     * Stop the caller threads.
+     */
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private AddressLoadCoalescer coalescer(boolean enabled) {
+        AddressProperties properties = new AddressProperties();
+        properties.getCoalescing().setEnabled(enabled);
+        return new AddressLoadCoalescer(addressService, properties, meterRegistry);
+    }
+
+    /*
+     * Starts the callers and releases the blocked load once all but the first have joined it.
+     */
+    private List<Future<AddressResponse>> callConcurrently(AddressLoadCoalescer coalescer) {
+        List<Future<AddressResponse>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> coalescer.getAddressById(1L)));
+        }
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> meterRegistry.counter("address.load.coalesced").count() == CALLERS - 1);
+        release.countDown();
+        return results;
+    }
+
+    /*
+     * Test that concurrent callers for the same ID share a single load.
+     */
+    @Test
+    @DisplayName("Test Get Address By ID - Coalesced")
+    void testGetAddressById_Coalesced() throws Exception {
+        log.info("Running testGetAddressById_Coalesced");
+        when(addressService.getAddressById(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+        AddressLoadCoalescer coalescer = coalescer(true);
+        for (Future<AddressResponse> result : callConcurrently(coalescer)) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(response);
+        }
+        verify(addressService).getAddressById(1L);
+        coalescer.getAddressById(1L);
+        verify(addressService, times(2)).getAddressById(1L);
+        log.info("Test testGetAddressById_Coalesced passed");
+    }
+
+    /*
+     * Test that the failure of a shared load is rethrown to every caller.
+     */
+    @Test
+    @DisplayName("Test Get Address By ID - Coalesced Failure")
+    void testGetAddressById_CoalescedFailure() {
+        log.info("Running testGetAddressById_CoalescedFailure");
+        when(addressService.getAddressById(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new AddressNotFoundException("Address not found with id: 1");
+        });
+        for (Future<AddressResponse> result : callConcurrently(coalescer(true))) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AddressNotFoundException.class);
+        }
+        verify(addressService).getAddressById(1L);
+        log.info("Test testGetAddressById_CoalescedFailure passed");
+    }
+
+    /*
+     * Test that every call loads the address when coalescing is disabled.
+     */
+    @Test
+    @DisplayName("Test Get Address By ID - Disabled")
+    void testGetAddressById_Disabled() {
+        log.info("Running testGetAddressById_Disabled");
+        when(addressService.getAddressById(1L)).thenReturn(response);
+        AddressLoadCoalescer coalescer = coalescer(false);
+        coalescer.getAddressById(1L);
+        coalescer.getAddressById(1L);
+        verify(addressService, times(2)).getAddressById(1L);
+        assertThat(meterRegistry.counter("address.load.coalesced").count()).isZero();
+        log.info("Test testGetAddressById_Disabled passed");
+    }
+}
@@ -0,0 +1,189 @@
+package com.sh.testcontainers_demo.service;
+
+import com.sh.testcontainers_demo.config.SecondLevelCacheConfig;
+import com.sh.testcontainers_demo.dto.AddressRequest;
+import com.sh.testcontainers_demo.dto.AddressResponse;
+import com.sh.testcontainers_demo.dto.UserRequest;
+import com.sh.testcontainers_demo.dto.UserResponse;
+import com.sh.testcontainers_demo.entity.Address;
+import com.sh.testcontainers_demo.entity.User;
+import com.sh.testcontainers_demo.exception.AddressNotFoundException;
+import com.sh.testcontainers_demo.repository.AddressRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for the second-level cache used by AddressService.
+ * <p>
+ * This test class verifies that address entity loads, as done by the write paths, are
+ * served from the cache and that updates and deletes keep the cache consistent with the
+ * database, including bulk deletes through UserService. Reads of response DTOs bypass
+ * the entity cache.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "app.cache.second-level.enabled=true",
+        "app.cache.second-level.statistics=true"
+})
+class AddressServiceCacheTest {
+
+    private static final String USER_ADDRESS_ROLE = User.class.getName() + ".address";
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private CacheRegionStatistics regionStatistics;
+
+    /*
+     * Reset the cache and its statistics before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getStatistics().clear();
+        regionStatistics = sessionFactory.getStatistics().getDomainDataRegionStatistics(SecondLevelCacheConfig.ADDRESS_REGION);
+    }
+
+    /*
+     * Test that repeated loads of the same address entity are served from the cache.
+     */
+    @Test
+    @DisplayName("Test Find Address By ID - Cache Hit")
+    void testFindAddressById_CacheHit() {
+        log.info("Running testFindAddressById_CacheHit");
+        AddressResponse created = addressService.createAddress(new AddressRequest("Street", "City", "State", "12345", "Country"));
+        entityManagerFactory.getCache().evict(Address.class, created.id());
+        addressRepository.findById(created.id());
+        assertThat(entityManagerFactory.getCache().contains(Address.class, created.id())).isTrue();
+        addressRepository.findById(created.id());
+        assertThat(regionStatistics.getMissCount()).isEqualTo(1);
+        assertThat(regionStatistics.getHitCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("hibernate.second.level.cache.hit.ratio")
+                .tag("region", SecondLevelCacheConfig.ADDRESS_REGION).gauge().value()).isEqualTo(0.5);
+        log.info("Test testFindAddressById_CacheHit passed");
+    }
+
+    /*
+     * Test that updating an address refreshes the cached entry instead of leaving a stale one.
+     */
+    @Test
+    @DisplayName("Test Update Address - Cache Refreshed")
+    void testUpdateAddress_CacheRefreshed() {
+        log.info("Running testUpdateAddress_CacheRefreshed");
+        AddressResponse created = addressService.createAddress(new AddressRequest("Street", "City", "State", "12345", "Country"));
+        addressService.getAddressById(created.id());
+        addressService.updateAddress(created.id(), new AddressRequest("New Street", "City", "State", "12345", "Country"));
+        assertThat(entityManagerFactory.getCache().contains(Address.class, created.id())).isTrue();
+        AddressResponse read = addressService.getAddressById(created.id());
+        assertThat(read.street()).isEqualTo("New Street");
+        log.info("Test testUpdateAddress_CacheRefreshed passed");
+    }
+
+    /*
+     * Test that deleting an address evicts it from the cache.
+     * Verifies that other cached addresses are kept.
+     */
+    @Test
+    @DisplayName("Test Delete Address - Cache Evicted")
+    void testDeleteAddress_CacheEvicted() {
+        log.info("Running testDeleteAddress_CacheEvicted");
+        AddressResponse created = addressService.createAddress(new AddressRequest("Street", "City", "State", "12345", "Country"));
+        AddressResponse other = addressService.createAddress(new AddressRequest("Other Street", "City", "State", "12345", "Country"));
+        addressRepository.findById(created.id());
+        addressRepository.findById(other.id());
+        assertThat(entityManagerFactory.getCache().contains(Address.class, created.id())).isTrue();
+        addressService.deleteAddress(created.id());
+        assertThat(entityManagerFactory.getCache().contains(Address.class, created.id())).isFalse();
+        assertThat(entityManagerFactory.getCache().contains(Address.class, other.id())).isTrue();
+        Long id = created.id();
+        assertThrows(AddressNotFoundException.class, () -> addressService.getAddressById(id));
+        log.info("Test testDeleteAddress_CacheEvicted passed");
+    }
+
+    /*
+     * Test that deleting an address of a user evicts the cached address collection of that
+     * user only, so that reading the user again does not return the deleted address.
+     */
+    @Test
+    @DisplayName("Test Delete Address - User Addresses Evicted")
+    void testDeleteAddress_UserAddressesEvicted() {
+        log.info("Running testDeleteAddress_UserAddressesEvicted");
+        AddressRequest request = new AddressRequest("Street", "City", "State", "12345", "Country");
+        UserResponse owner = userService.createUser(new UserRequest("Owner", "owner@example.com", List.of(request, request)));
+        UserResponse other = userService.createUser(new UserRequest("Other", "other@example.com", List.of(request)));
+        userService.getUserById(owner.id(), true);
+        userService.getUserById(other.id(), true);
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        assertThat(cache.containsCollection(USER_ADDRESS_ROLE, owner.id())).isTrue();
+        addressService.deleteAddress(owner.address().getFirst().id(), owner.address().getFirst().version());
+        assertThat(cache.containsCollection(USER_ADDRESS_ROLE, owner.id())).isFalse();
+        assertThat(cache.containsCollection(USER_ADDRESS_ROLE, other.id())).isTrue();
+        assertThat(userService.getUserById(owner.id(), true).address()).extracting(AddressResponse::id)
+                .containsExactly(owner.address().getLast().id());
+        log.info("Test testDeleteAddress_UserAddressesEvicted passed");
+    }
+
+    /*
+     * Test that exporting all addresses does not fill the cache.
+     */
+    @Test
+    @DisplayName("Test Export Addresses - Cache Bypassed")
+    void testExportAddresses_CacheBypassed() {
+        log.info("Running testExportAddresses_CacheBypassed");
+        AddressResponse created = addressService.createAddress(new AddressRequest("Street", "City", "State", "12345", "Country"));
+        entityManagerFactory.getCache().evictAll();
+        assertThat(addressService.exportAddresses(response -> { })).isPositive();
+        assertThat(entityManagerFactory.getCache().contains(Address.class, created.id())).isFalse();
+        log.info("Test testExportAddresses_CacheBypassed passed");
+    }
+
+    /*
+     * Test that deleting a user, whose addresses are removed by a bulk DELETE,
+     * evicts the addresses and the user from the cache.
+     */
+    @Test
+    @DisplayName("Test Delete User - Cache Evicted")
+    void testDeleteUser_CacheEvicted() {
+        log.info("Running testDeleteUser_CacheEvicted");
+        UserResponse created = userService.createUser(new UserRequest("Cached", "cached@example.com",
+                List.of(new AddressRequest("Street", "City", "State", "12345", "Country"))));
+        Long addressId = created.address().getFirst().id();
+        addressRepository.findById(addressId);
+        assertThat(entityManagerFactory.getCache().contains(Address.class, addressId)).isTrue();
+        userService.deleteUser(created.id());
+        assertThat(entityManagerFactory.getCache().contains(Address.class, addressId)).isFalse();
+        assertThat(entityManagerFactory.getCache().contains(User.class, created.id())).isFalse();
+        assertThrows(AddressNotFoundException.class, () -> addressService.getAddressById(addressId));
+        log.info("Test testDeleteUser_CacheEvicted passed");
+    }
+}
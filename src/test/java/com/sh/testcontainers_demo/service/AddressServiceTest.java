@@ -1,11 +1,29 @@
 package com.sh.testcontainers_demo.service;
 
+import com.sh.testcontainers_demo.cache.AddressAutocompleteIndex;
+import com.sh.testcontainers_demo.cache.AddressIdFilter;
+import com.sh.testcontainers_demo.cache.AddressResponseCache;
+import com.sh.testcontainers_demo.config.AddressProperties;
+import com.sh.testcontainers_demo.dto.AddressChange;
+import com.sh.testcontainers_demo.dto.AddressChangePage;
+import com.sh.testcontainers_demo.dto.AddressLookupResponse;
+import com.sh.testcontainers_demo.dto.AddressPatchRequest;
 import com.sh.testcontainers_demo.dto.AddressRequest;
 import com.sh.testcontainers_demo.dto.AddressResponse;
+import com.sh.testcontainers_demo.dto.AddressSearchCriteria;
+import com.sh.testcontainers_demo.dto.BulkAddressResponse;
+import com.sh.testcontainers_demo.dto.ChangeCursor;
+import com.sh.testcontainers_demo.dto.CursorPage;
 import com.sh.testcontainers_demo.entity.Address;
+import com.sh.testcontainers_demo.entity.AddressTombstone;
 import com.sh.testcontainers_demo.entity.mapper.AddressMapper;
 import com.sh.testcontainers_demo.exception.AddressNotFoundException;
+import com.sh.testcontainers_demo.exception.PreconditionFailedException;
 import com.sh.testcontainers_demo.repository.AddressRepository;
+import com.sh.testcontainers_demo.repository.AddressTombstoneRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,15 +32,31 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -41,7 +75,21 @@ class AddressServiceTest {
     @Mock
     private AddressRepository addressRepository;
     @Mock
+    private AddressTombstoneRepository addressTombstoneRepository;
+    @Mock
     private AddressMapper addressMapper;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private AddressProperties addressProperties = new AddressProperties();
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private AddressResponseCache addressResponseCache;
+    @Mock
+    private AddressAutocompleteIndex addressAutocompleteIndex;
+    @Mock
+    private AddressIdFilter addressIdFilter;
     @InjectMocks
     private AddressService addressService;
 
@@ -64,7 +112,7 @@ class AddressServiceTest {
         address.setState("State");
         address.setZipCode("12345");
         address.setCountry("Country");
-        addressResponse = new AddressResponse(1L, "Street", "City", "State", "12345", "Country", Instant.now(), Instant.now(), "creator", "modifier");
+        addressResponse = new AddressResponse(1L, "Street", "City", "State", "12345", "Country", Instant.now(), Instant.now(), "creator", "modifier", 0L);
     }
 
     /*
@@ -92,6 +140,7 @@ class AddressServiceTest {
         assertNotNull(result);
         assertEquals(addressResponse.id(), result.id());
         verify(addressRepository).save(address);
+        verify(addressIdFilter).add(1L);
         log.info("Test testCreateAddress passed");
     }
 
@@ -103,8 +152,7 @@ class AddressServiceTest {
     @DisplayName("Test Get Address By ID - Found")
     void testGetAddressById_Found() {
         log.info("Running testGetAddressById_Found");
-        when(addressRepository.findById(1L)).thenReturn(Optional.of(address));
-        when(addressMapper.toDto(address)).thenReturn(addressResponse);
+        when(addressRepository.findResponseById(1L)).thenReturn(Optional.of(addressResponse));
         AddressResponse result = addressService.getAddressById(1L);
         assertNotNull(result);
         assertEquals(1L, result.id());
@@ -119,7 +167,7 @@ class AddressServiceTest {
     @DisplayName("Test Get Address By ID - Not Found")
     void testGetAddressById_NotFound() {
         log.info("Running testGetAddressById_NotFound");
-        when(addressRepository.findById(1L)).thenReturn(Optional.empty());
+        when(addressRepository.findResponseById(1L)).thenReturn(Optional.empty());
         RuntimeException ex = assertThrows(RuntimeException.class, () -> addressService.getAddressById(1L));
         assertTrue(ex.getMessage().contains("Address not found"));
         log.info("Test testGetAddressById_NotFound passed");
@@ -127,27 +175,28 @@ class AddressServiceTest {
 
     /*
      * Test updating an existing address when the address exists.
-     * Verifies that the address is updated and the response is correct.
+     * Verifies that the managed entity is updated in place without calling save.
      */
     @Test
     @DisplayName("Test Update Address - Found")
     void testUpdateAddress_Found() {
         log.info("Running testUpdateAddress_Found");
         when(addressRepository.findById(1L)).thenReturn(Optional.of(address));
-        Address updated = new Address();
-        updated.setId(1L);
-        updated.setStreet("New Street");
-        updated.setCity("New City");
-        updated.setState("New State");
-        updated.setZipCode("54321");
-        updated.setCountry("New Country");
-        when(addressMapper.toEntity(addressRequest)).thenReturn(updated);
-        when(addressRepository.save(any(Address.class))).thenReturn(updated);
-        AddressResponse updatedResponse = new AddressResponse(1L, "New Street", "New City", "New State", "54321", "New Country", Instant.now(), Instant.now(), "creator", "modifier");
-        when(addressMapper.toDto(updated)).thenReturn(updatedResponse);
-        AddressResponse result = addressService.updateAddress(1L, addressRequest);
+        AddressRequest updateRequest = new AddressRequest("New Street", "New City", "New State", "54321", "New Country");
+        doAnswer(invocation -> {
+            address.setStreet("New Street");
+            return null;
+        }).when(addressMapper).updateEntity(updateRequest, address);
+        AddressResponse updatedResponse = new AddressResponse(1L, "New Street", "New City", "New State", "54321", "New Country", Instant.now(), Instant.now(), "creator", "modifier", 0L);
+        when(addressMapper.toDto(address)).thenReturn(updatedResponse);
+        AddressResponse result = addressService.updateAddress(1L, updateRequest);
         assertNotNull(result);
         assertEquals("New Street", result.street());
+        assertEquals("New Street", address.getStreet());
+        verify(addressMapper).updateEntity(updateRequest, address);
+        verify(addressRepository).flush();
+        verify(addressRepository, never()).save(any(Address.class));
+        verify(addressResponseCache).invalidate(1L);
         log.info("Test testUpdateAddress_Found passed");
     }
 
@@ -173,9 +222,13 @@ class AddressServiceTest {
     @DisplayName("Test Delete Address - Found")
     void testDeleteAddress_Found() {
         log.info("Running testDeleteAddress_Found");
-        when(addressRepository.existsById(1L)).thenReturn(true);
+        when(addressRepository.deleteAddressById(1L)).thenReturn(1);
         addressService.deleteAddress(1L);
-        verify(addressRepository).deleteById(1L);
+        verify(addressRepository).deleteAddressById(1L);
+        verify(addressRepository, never()).existsById(any());
+        verify(addressRepository, never()).deleteById(any());
+        verify(addressResponseCache).invalidate(1L);
+        verify(addressTombstoneRepository).insertTombstone(eq(1L), any(Instant.class));
         log.info("Test testDeleteAddress_Found passed");
     }
 
@@ -187,9 +240,10 @@ class AddressServiceTest {
     @DisplayName("Test Delete Address - Not Found")
     void testDeleteAddress_NotFound() {
         log.info("Running testDeleteAddress_NotFound");
-        when(addressRepository.existsById(1L)).thenReturn(false);
+        when(addressRepository.deleteAddressById(1L)).thenReturn(0);
         RuntimeException ex = assertThrows(RuntimeException.class, () -> addressService.deleteAddress(1L));
         assertTrue(ex.getMessage().contains("Address not found"));
+        verifyNoInteractions(addressTombstoneRepository);
         log.info("Test testDeleteAddress_NotFound passed");
     }
 
@@ -201,8 +255,7 @@ class AddressServiceTest {
     @DisplayName("Test Get All Addresses")
     void testGetAllAddresses() {
         log.info("Running testGetAllAddresses");
-        when(addressRepository.findAll()).thenReturn(Collections.singletonList(address));
-        when(addressMapper.toDto(address)).thenReturn(addressResponse);
+        when(addressRepository.findAllResponses()).thenReturn(Collections.singletonList(addressResponse));
         List<AddressResponse> result = addressService.getAllAddresses();
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -218,7 +271,7 @@ class AddressServiceTest {
     @DisplayName("Test Get All Addresses - Empty List")
     void testGetAllAddresses_Empty() {
         log.info("Running testGetAllAddresses_Empty");
-        when(addressRepository.findAll()).thenReturn(Collections.emptyList());
+        when(addressRepository.findAllResponses()).thenReturn(Collections.emptyList());
         List<AddressResponse> result = addressService.getAllAddresses();
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -240,7 +293,7 @@ class AddressServiceTest {
         minimalAddress.setState("C");
         minimalAddress.setZipCode("D");
         minimalAddress.setCountry("E");
-        AddressResponse minimalResponse = new AddressResponse(2L, "A", "B", "C", "D", "E", Instant.now(), Instant.now(), "creator", "modifier");
+        AddressResponse minimalResponse = new AddressResponse(2L, "A", "B", "C", "D", "E", Instant.now(), Instant.now(), "creator", "modifier", 0L);
         when(addressMapper.toEntity(any(AddressRequest.class))).thenReturn(minimalAddress);
         when(addressRepository.save(any(Address.class))).thenReturn(minimalAddress);
         when(addressMapper.toDto(any(Address.class))).thenReturn(minimalResponse);
@@ -253,28 +306,21 @@ class AddressServiceTest {
 
     /*
      * Test updating an address with partial changes.
-     * Verifies that only the changed fields are updated.
+     * Verifies that the request is applied to the loaded entity rather than a new one.
      */
     @Test
     @DisplayName("Test Update Address - Partial Change")
     void testUpdateAddress_PartialChange() {
         log.info("Running testUpdateAddress_PartialChange");
         when(addressRepository.findById(1L)).thenReturn(Optional.of(address));
-        Address partialUpdate = new Address();
-        partialUpdate.setId(1L);
-        partialUpdate.setStreet("Street"); // unchanged
-        partialUpdate.setCity("New City"); // changed
-        partialUpdate.setState("State"); // unchanged
-        partialUpdate.setZipCode("12345"); // unchanged
-        partialUpdate.setCountry("Country"); // unchanged
         AddressRequest partialRequest = new AddressRequest("Street", "New City", "State", "12345", "Country");
-        AddressResponse partialResponse = new AddressResponse(1L, "Street", "New City", "State", "12345", "Country", Instant.now(), Instant.now(), "creator", "modifier");
-        when(addressMapper.toEntity(partialRequest)).thenReturn(partialUpdate);
-        when(addressRepository.save(any(Address.class))).thenReturn(partialUpdate);
-        when(addressMapper.toDto(partialUpdate)).thenReturn(partialResponse);
+        AddressResponse partialResponse = new AddressResponse(1L, "Street", "New City", "State", "12345", "Country", Instant.now(), Instant.now(), "creator", "modifier", 0L);
+        when(addressMapper.toDto(address)).thenReturn(partialResponse);
         AddressResponse result = addressService.updateAddress(1L, partialRequest);
         assertNotNull(result);
         assertEquals("New City", result.city());
+        verify(addressMapper).updateEntity(partialRequest, address);
+        verify(addressMapper, never()).toEntity(any(AddressRequest.class));
         log.info("Test testUpdateAddress_PartialChange passed");
     }
 
@@ -321,22 +367,472 @@ class AddressServiceTest {
     @DisplayName("Test Delete Address - Negative Id")
     void testDeleteAddress_NegativeId() {
         log.info("Running testDeleteAddress_NegativeId");
-        when(addressRepository.existsById(-1L)).thenReturn(false);
+        when(addressRepository.deleteAddressById(-1L)).thenReturn(0);
         RuntimeException ex = assertThrows(RuntimeException.class, () -> addressService.deleteAddress(-1L));
         assertTrue(ex.getMessage().contains("Address not found"));
         log.info("Test testDeleteAddress_NegativeId passed");
     }
 
     /*
-     * Test retrieving all addresses when the repository returns null.
-     * Verifies that a NullPointerException is thrown.
+     * Test that retrieving addresses neither loads entities nor maps them.
+     * Verifies that the DTO projections are used instead of findById and findAll.
+     */
+    @Test
+    @DisplayName("Test Get Addresses - Projections Without Mapping")
+    void testGetAddresses_ProjectionsWithoutMapping() {
+        log.info("Running testGetAddresses_ProjectionsWithoutMapping");
+        when(addressRepository.findResponseById(1L)).thenReturn(Optional.of(addressResponse));
+        when(addressRepository.findAllResponses()).thenReturn(List.of(addressResponse));
+        addressService.getAddressById(1L);
+        addressService.getAllAddresses();
+        verify(addressRepository, never()).findById(any());
+        verify(addressRepository, never()).findAll();
+        verifyNoInteractions(addressMapper);
+        log.info("Test testGetAddresses_ProjectionsWithoutMapping passed");
+    }
+
+    /*
+     * Test retrieving a page of addresses when more rows exist than the limit.
+     * Verifies that one extra row is requested and the next cursor points at the last returned ID.
+     */
+    @Test
+    @DisplayName("Test Get Address Page - Has Next Page")
+    void testGetAddressPage_HasNext() {
+        log.info("Running testGetAddressPage_HasNext");
+        AddressResponse second = new AddressResponse(2L, null, null, null, null, null, null, null, null, null, null);
+        when(addressRepository.findResponsesByIdGreaterThan(0L, Limit.of(2))).thenReturn(List.of(addressResponse, second));
+        CursorPage<AddressResponse> result = addressService.getAddressPage(null, 1);
+        assertEquals(1, result.content().size());
+        assertEquals(addressResponse.id(), result.content().getFirst().id());
+        assertEquals("1", result.nextCursor());
+        log.info("Test testGetAddressPage_HasNext passed");
+    }
+
+    /*
+     * Test retrieving the last page of addresses.
+     * Verifies that no next cursor is returned.
+     */
+    @Test
+    @DisplayName("Test Get Address Page - Last Page")
+    void testGetAddressPage_LastPage() {
+        log.info("Running testGetAddressPage_LastPage");
+        when(addressRepository.findResponsesByIdGreaterThan(0L, Limit.of(11))).thenReturn(List.of(addressResponse));
+        CursorPage<AddressResponse> result = addressService.getAddressPage(0L, 10);
+        assertEquals(1, result.content().size());
+        assertNull(result.nextCursor());
+        log.info("Test testGetAddressPage_LastPage passed");
+    }
+
+    /*
+     * Test exporting all addresses.
+     * Verifies that every address is passed to the consumer and the stream is closed.
+     */
+    @Test
+    @DisplayName("Test Export Addresses")
+    void testExportAddresses() {
+        log.info("Running testExportAddresses");
+        List<Boolean> closed = new ArrayList<>();
+        when(addressRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(address, address).onClose(() -> closed.add(true)));
+        when(addressMapper.toDto(address)).thenReturn(addressResponse);
+        List<AddressResponse> exported = new ArrayList<>();
+        long count = addressService.exportAddresses(exported::add);
+        assertEquals(2, count);
+        assertEquals(List.of(addressResponse, addressResponse), exported);
+        assertEquals(List.of(true), closed);
+        verify(entityManager, never()).clear();
+        log.info("Test testExportAddresses passed");
+    }
+
+    /*
+     * Test exporting more addresses than one fetch-sized chunk.
+     * Verifies that the persistence context is cleared after each chunk.
+     */
+    @Test
+    @DisplayName("Test Export Addresses - Clears Persistence Context")
+    void testExportAddresses_ClearsPersistenceContext() {
+        log.info("Running testExportAddresses_ClearsPersistenceContext");
+        int chunk = Integer.parseInt(AddressRepository.STREAM_FETCH_SIZE);
+        when(addressRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.generate(() -> address).limit(chunk * 2L + 1));
+        when(addressMapper.toDto(address)).thenReturn(addressResponse);
+        long count = addressService.exportAddresses(response -> { });
+        assertEquals(chunk * 2L + 1, count);
+        verify(entityManager, times(2)).clear();
+        log.info("Test testExportAddresses_ClearsPersistenceContext passed");
+    }
+
+    /*
+     * Test creating addresses in bulk across several chunks.
+     * Verifies that each chunk is saved, flushed and cleared and that the IDs and timings are reported.
+     */
+    @Test
+    @DisplayName("Test Create Addresses - Chunked")
+    @SuppressWarnings("unchecked")
+    void testCreateAddresses_Chunked() {
+        log.info("Running testCreateAddresses_Chunked");
+        addressProperties.getBulk().setChunkSize(2);
+        when(addressMapper.toEntity(any(AddressRequest.class))).thenReturn(address);
+        when(addressRepository.saveAll(any(List.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        BulkAddressResponse result = addressService.createAddresses(List.of(addressRequest, addressRequest, addressRequest));
+        assertEquals(List.of(1L, 1L, 1L), result.ids());
+        assertEquals(2, result.chunkDurationsMillis().size());
+        verify(addressRepository, times(2)).saveAll(any(List.class));
+        verify(addressRepository, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        assertEquals(2, meterRegistry.timer("address.bulk.chunk").count());
+        log.info("Test testCreateAddresses_Chunked passed");
+    }
+
+    /*
+     * Test creating addresses in bulk with an empty list.
+     * Verifies that nothing is saved.
+     */
+    @Test
+    @DisplayName("Test Create Addresses - Empty List")
+    @SuppressWarnings("unchecked")
+    void testCreateAddresses_Empty() {
+        log.info("Running testCreateAddresses_Empty");
+        BulkAddressResponse result = addressService.createAddresses(List.of());
+        assertTrue(result.ids().isEmpty());
+        assertTrue(result.chunkDurationsMillis().isEmpty());
+        verify(addressRepository, never()).saveAll(any(List.class));
+        log.info("Test testCreateAddresses_Empty passed");
+    }
+
+    /*
+     * Test patching an existing address.
+     * Verifies that the patch is applied to the managed entity without calling save.
+     */
+    @Test
+    @DisplayName("Test Patch Address - Found")
+    void testPatchAddress_Found() {
+        log.info("Running testPatchAddress_Found");
+        AddressPatchRequest patch = new AddressPatchRequest(null, null, null, "54321", null);
+        when(addressRepository.findById(1L)).thenReturn(Optional.of(address));
+        when(addressMapper.toDto(address)).thenReturn(addressResponse);
+        AddressResponse result = addressService.patchAddress(1L, patch);
+        assertNotNull(result);
+        verify(addressMapper).patchEntity(patch, address);
+        verify(addressResponseCache).invalidate(1L);
+        verify(addressRepository).flush();
+        verify(addressRepository, never()).save(any(Address.class));
+        log.info("Test testPatchAddress_Found passed");
+    }
+
+    /*
+     * Test patching an address when the address does not exist.
+     * Verifies that an AddressNotFoundException is thrown.
+     */
+    @Test
+    @DisplayName("Test Patch Address - Not Found")
+    void testPatchAddress_NotFound() {
+        log.info("Running testPatchAddress_NotFound");
+        when(addressRepository.findById(1L)).thenReturn(Optional.empty());
+        AddressPatchRequest patch = new AddressPatchRequest("Street", null, null, null, null);
+        assertThrows(AddressNotFoundException.class, () -> addressService.patchAddress(1L, patch));
+        log.info("Test testPatchAddress_NotFound passed");
+    }
+
+    /*
+     * Test retrieving the version of an existing address.
+     */
+    @Test
+    @DisplayName("Test Get Address Version - Found")
+    void testGetAddressVersion_Found() {
+        log.info("Running testGetAddressVersion_Found");
+        when(addressRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+        assertEquals(4L, addressService.getAddressVersion(1L));
+        verify(addressRepository, never()).findById(any());
+        log.info("Test testGetAddressVersion_Found passed");
+    }
+
+    /*
+     * Test retrieving the version of an address that does not exist.
+     */
+    @Test
+    @DisplayName("Test Get Address Version - Not Found")
+    void testGetAddressVersion_NotFound() {
+        log.info("Running testGetAddressVersion_NotFound");
+        when(addressRepository.findVersionById(1L)).thenReturn(Optional.empty());
+        assertThrows(AddressNotFoundException.class, () -> addressService.getAddressVersion(1L));
+        log.info("Test testGetAddressVersion_NotFound passed");
+    }
+
+    /*
+     * Test updating an address with a matching expected version.
+     */
+    @Test
+    @DisplayName("Test Update Address - Version Matches")
+    void testUpdateAddress_VersionMatches() {
+        log.info("Running testUpdateAddress_VersionMatches");
+        address.setVersion(2L);
+        when(addressRepository.findById(1L)).thenReturn(Optional.of(address));
+        when(addressMapper.toDto(address)).thenReturn(addressResponse);
+        assertNotNull(addressService.updateAddress(1L, addressRequest, 2L));
+        verify(addressMapper).updateEntity(addressRequest, address);
+        log.info("Test testUpdateAddress_VersionMatches passed");
+    }
+
+    /*
+     * Test updating an address whose version differs from the expected one.
+     * Verifies that a PreconditionFailedException is thrown and nothing is changed.
+     */
+    @Test
+    @DisplayName("Test Update Address - Version Mismatch")
+    void testUpdateAddress_VersionMismatch() {
+        log.info("Running testUpdateAddress_VersionMismatch");
+        address.setVersion(3L);
+        when(addressRepository.findById(1L)).thenReturn(Optional.of(address));
+        assertThrows(PreconditionFailedException.class, () -> addressService.updateAddress(1L, addressRequest, 2L));
+        verify(addressMapper, never()).updateEntity(any(), any());
+        assertEquals(1, meterRegistry.counter("address.optimistic.lock.conflicts", "operation", "update").count());
+        log.info("Test testUpdateAddress_VersionMismatch passed");
+    }
+
+    /*
+     * Test a concurrent modification detected when flushing an update.
+     * Verifies that it is a failed precondition with an expected version and rethrown without one.
+     */
+    @Test
+    @DisplayName("Test Update Address - Concurrent Modification")
+    void testUpdateAddress_ConcurrentModification() {
+        log.info("Running testUpdateAddress_ConcurrentModification");
+        address.setVersion(2L);
+        when(addressRepository.findById(1L)).thenReturn(Optional.of(address));
+        doThrow(new OptimisticLockingFailureException("conflict")).when(addressRepository).flush();
+        assertThrows(PreconditionFailedException.class, () -> addressService.updateAddress(1L, addressRequest, 2L));
+        assertThrows(OptimisticLockingFailureException.class, () -> addressService.updateAddress(1L, addressRequest));
+        log.info("Test testUpdateAddress_ConcurrentModification passed");
+    }
+
+    /*
+     * Test deleting an address with a matching expected version.
+     */
+    @Test
+    @DisplayName("Test Delete Address - Version Matches")
+    void testDeleteAddress_VersionMatches() {
+        log.info("Running testDeleteAddress_VersionMatches");
+        when(addressRepository.deleteAddressByIdAndVersion(1L, 2L)).thenReturn(1);
+        addressService.deleteAddress(1L, 2L);
+        verify(addressRepository, never()).existsById(any());
+        verify(addressResponseCache).invalidate(1L);
+        log.info("Test testDeleteAddress_VersionMatches passed");
+    }
+
+    /*
+     * Test deleting an address whose version differs from the expected one.
+     * Verifies that a PreconditionFailedException is thrown.
+     */
+    @Test
+    @DisplayName("Test Delete Address - Version Mismatch")
+    void testDeleteAddress_VersionMismatch() {
+        log.info("Running testDeleteAddress_VersionMismatch");
+        when(addressRepository.deleteAddressByIdAndVersion(1L, 2L)).thenReturn(0);
+        when(addressRepository.existsById(1L)).thenReturn(true);
+        assertThrows(PreconditionFailedException.class, () -> addressService.deleteAddress(1L, 2L));
+        log.info("Test testDeleteAddress_VersionMismatch passed");
+    }
+
+    /*
+     * Test deleting a missing address with an expected version.
+     * Verifies that an AddressNotFoundException is thrown.
+     */
+    @Test
+    @DisplayName("Test Delete Address - Versioned Not Found")
+    void testDeleteAddress_VersionedNotFound() {
+        log.info("Running testDeleteAddress_VersionedNotFound");
+        when(addressRepository.deleteAddressByIdAndVersion(1L, 2L)).thenReturn(0);
+        when(addressRepository.existsById(1L)).thenReturn(false);
+        assertThrows(AddressNotFoundException.class, () -> addressService.deleteAddress(1L, 2L));
+        log.info("Test testDeleteAddress_VersionedNotFound passed");
+    }
+
+    /*
+     * Test searching addresses when more rows match than the limit.
+     * Verifies that one extra row is requested and the next cursor points at the last returned ID.
+     */
+    @Test
+    @DisplayName("Test Search Addresses - Has Next Page")
+    @SuppressWarnings("unchecked")
+    void testSearchAddresses_HasNext() {
+        log.info("Running testSearchAddresses_HasNext");
+        AddressResponse second = new AddressResponse(2L, null, null, null, null, null, null, null, null, null, null);
+        when(addressRepository.findResponses(any(Specification.class), eq(2))).thenReturn(List.of(addressResponse, second));
+        CursorPage<AddressResponse> result = addressService.searchAddresses(new AddressSearchCriteria("City", null, null, null), null, 1);
+        assertEquals(List.of(addressResponse), result.content());
+        assertEquals("1", result.nextCursor());
+        verifyNoInteractions(addressMapper);
+        log.info("Test testSearchAddresses_HasNext passed");
+    }
+
+    /*
+     * Test searching addresses on the last page.
+     * Verifies that no next cursor is returned.
+     */
+    @Test
+    @DisplayName("Test Search Addresses - Last Page")
+    @SuppressWarnings("unchecked")
+    void testSearchAddresses_LastPage() {
+        log.info("Running testSearchAddresses_LastPage");
+        when(addressRepository.findResponses(any(Specification.class), eq(11))).thenReturn(List.of(addressResponse));
+        CursorPage<AddressResponse> result = addressService.searchAddresses(new AddressSearchCriteria(null, null, "Country", null), 0L, 10);
+        assertEquals(1, result.content().size());
+        assertNull(result.nextCursor());
+        log.info("Test testSearchAddresses_LastPage passed");
+    }
+
+    /*
+     * Test that creating, updating and deleting an address keeps the autocomplete index up to date.
+     */
+    @Test
+    @DisplayName("Test Autocomplete Index - Kept Up To Date")
+    void testAutocompleteIndex_KeptUpToDate() {
+        log.info("Running testAutocompleteIndex_KeptUpToDate");
+        AddressAutocompleteIndex.Entry entry = new AddressAutocompleteIndex.Entry(1L, "Street", "City");
+        when(addressMapper.toEntity(addressRequest)).thenReturn(address);
+        when(addressRepository.save(address)).thenReturn(address);
+        addressService.createAddress(addressRequest);
+        verify(addressAutocompleteIndex).put(entry);
+        when(addressRepository.findById(1L)).thenReturn(Optional.of(address));
+        addressService.updateAddress(1L, addressRequest);
+        verify(addressAutocompleteIndex, times(2)).put(entry);
+        when(addressRepository.deleteAddressById(1L)).thenReturn(1);
+        addressService.deleteAddress(1L);
+        verify(addressAutocompleteIndex).remove(1L);
+        log.info("Test testAutocompleteIndex_KeptUpToDate passed");
+    }
+
+    /*
+     * Test building the autocomplete index from the repository.
+     */
+    @Test
+    @DisplayName("Test Build Autocomplete Index")
+    void testBuildAutocompleteIndex() {
+        log.info("Running testBuildAutocompleteIndex");
+        AddressRepository.AutocompleteView view = mock(AddressRepository.AutocompleteView.class);
+        when(view.getId()).thenReturn(1L);
+        when(view.getStreet()).thenReturn("Street");
+        when(view.getCity()).thenReturn("City");
+        when(addressRepository.streamAutocompleteViews()).thenReturn(Stream.of(view));
+        when(addressAutocompleteIndex.rebuild(any())).thenAnswer(invocation ->
+                (int) invocation.<Supplier<Stream<AddressAutocompleteIndex.Entry>>>getArgument(0).get()
+                        .filter(new AddressAutocompleteIndex.Entry(1L, "Street", "City")::equals)
+                        .count());
+        addressService.buildAutocompleteIndex();
+        verify(addressAutocompleteIndex).rebuild(any());
+        log.info("Test testBuildAutocompleteIndex passed");
+    }
+
+    /*
+     * Test loading the IDs of all addresses into the ID filter.
+     */
+    @Test
+    @DisplayName("Test Load Address ID Filter")
+    void testLoadAddressIdFilter() {
+        log.info("Running testLoadAddressIdFilter");
+        Stream<Long> ids = Stream.of(1L, 2L);
+        when(addressRepository.streamAllIds()).thenReturn(ids);
+        when(addressIdFilter.load(ids)).thenReturn(2L);
+        addressService.loadAddressIdFilter();
+        verify(addressIdFilter).load(ids);
+        log.info("Test testLoadAddressIdFilter passed");
+    }
+
+    /*
+     * Test looking up addresses by ID in chunks.
+     * Verifies that request order is preserved, duplicates are dropped and missing IDs are reported.
+     */
+    @Test
+    @DisplayName("Test Lookup Addresses")
+    void testLookupAddresses() {
+        log.info("Running testLookupAddresses");
+        addressProperties.getLookup().setChunkSize(2);
+        AddressResponse third = new AddressResponse(3L, null, null, null, null, null, null, null, null, null, null);
+        when(addressRepository.findResponsesByIdIn(List.of(3L, 9L))).thenReturn(List.of(third));
+        when(addressRepository.findResponsesByIdIn(List.of(1L))).thenReturn(List.of(addressResponse));
+        AddressLookupResponse result = addressService.lookupAddresses(List.of(3L, 9L, 3L, 1L));
+        assertEquals(List.of(third, addressResponse), result.addresses());
+        assertEquals(List.of(9L), result.missing());
+        verify(addressRepository, times(2)).findResponsesByIdIn(any());
+        verifyNoInteractions(addressMapper);
+        log.info("Test testLookupAddresses passed");
+    }
+
+    /*
+     * Test retrieving only some fields of an address.
+     */
+    @Test
+    @DisplayName("Test Get Address Fields")
+    @SuppressWarnings("unchecked")
+    void testGetAddressFields() {
+        log.info("Running testGetAddressFields");
+        Map<String, Object> row = Map.of("zipCode", "12345");
+        when(addressRepository.findFields(eq(List.of("zipCode")), any(Specification.class), eq(1))).thenReturn(List.of(row));
+        assertEquals(row, addressService.getAddressFields(1L, List.of("zipCode")));
+        when(addressRepository.findFields(eq(List.of("city")), any(Specification.class), eq(1))).thenReturn(List.of());
+        assertThrows(AddressNotFoundException.class, () -> addressService.getAddressFields(2L, List.of("city")));
+        log.info("Test testGetAddressFields passed");
+    }
+
+    /*
+     * Test searching only some fields of addresses when the ID is not requested.
+     * Verifies that the ID is still selected for the cursor but removed from the rows.
+     */
+    @Test
+    @DisplayName("Test Search Address Fields - ID Not Requested")
+    @SuppressWarnings("unchecked")
+    void testSearchAddressFields_IdNotRequested() {
+        log.info("Running testSearchAddressFields_IdNotRequested");
+        List<Map<String, Object>> rows = List.of(
+                new LinkedHashMap<>(Map.of("id", 4L, "zipCode", "11111")),
+                new LinkedHashMap<>(Map.of("id", 6L, "zipCode", "22222")));
+        when(addressRepository.findFields(eq(List.of("id", "zipCode")), any(Specification.class), eq(2))).thenReturn(rows);
+        CursorPage<Map<String, Object>> result = addressService.searchAddressFields(
+                new AddressSearchCriteria(null, null, null, null), null, 1, List.of("zipCode"));
+        assertEquals(List.of(Map.of("zipCode", "11111")), result.content());
+        assertEquals("4", result.nextCursor());
+        log.info("Test testSearchAddressFields_IdNotRequested passed");
+    }
+
+    /*
+     * Test reading the change feed.
+     * Verifies that updates and tombstones are merged in (time, ID) order, cut at the limit,
+     * and that the cursor points at the last change returned.
+     */
+    @Test
+    @DisplayName("Test Get Address Changes")
+    void testGetAddressChanges() {
+        log.info("Running testGetAddressChanges");
+        Instant t1 = Instant.parse("2024-01-01T00:00:00Z");
+        Instant t2 = Instant.parse("2024-01-02T00:00:00Z");
+        AddressResponse updated = new AddressResponse(3L, null, null, null, null, null, null, t1, null, null, 1L);
+        AddressResponse later = new AddressResponse(4L, null, null, null, null, null, null, t2, null, null, 1L);
+        ChangeCursor since = ChangeCursor.since(t1);
+        when(addressRepository.findResponsesChangedAfter(eq(t1), eq(0L), any(Instant.class), eq(Limit.of(3))))
+                .thenReturn(List.of(updated, later));
+        when(addressTombstoneRepository.findDeletedAfter(eq(t1), eq(0L), any(Instant.class), eq(Limit.of(3))))
+                .thenReturn(List.of(new AddressTombstone(5L, t1)));
+        AddressChangePage page = addressService.getAddressChanges(since, 2);
+        assertEquals(List.of(
+                new AddressChange(AddressChange.Type.UPSERTED, 3L, t1, updated),
+                new AddressChange(AddressChange.Type.DELETED, 5L, t1, null)), page.changes());
+        assertTrue(page.hasMore());
+        assertEquals(new ChangeCursor(t1, 5L), ChangeCursor.decode(page.nextCursor()));
+        log.info("Test testGetAddressChanges passed");
+    }
+
+    /*
+     * Test reading the change feed when there are no new changes.
+     * Verifies that the cursor is returned unchanged so the client can poll again.
      */
     @Test
-    @DisplayName("Test Get All Addresses - Repository Returns Null")
-    void testGetAllAddresses_RepositoryReturnsNull() {
-        log.info("Running testGetAllAddresses_RepositoryReturnsNull");
-        when(addressRepository.findAll()).thenReturn(null);
-        assertThrows(NullPointerException.class, () -> addressService.getAllAddresses());
-        log.info("Test testGetAllAddresses_RepositoryReturnsNull passed");
+    @DisplayName("Test Get Address Changes - Caught Up")
+    void testGetAddressChanges_CaughtUp() {
+        log.info("Running testGetAddressChanges_CaughtUp");
+        ChangeCursor after = new ChangeCursor(Instant.parse("2024-01-01T00:00:00Z"), 7L);
+        AddressChangePage page = addressService.getAddressChanges(after, 10);
+        assertTrue(page.changes().isEmpty());
+        assertFalse(page.hasMore());
+        assertEquals(after.encode(), page.nextCursor());
+        log.info("Test testGetAddressChanges_CaughtUp passed");
     }
 }
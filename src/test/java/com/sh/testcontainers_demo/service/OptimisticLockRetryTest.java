@@ -0,0 +1,94 @@
+package com.sh.testcontainers_demo.service;
+
+import com.sh.testcontainers_demo.config.AddressProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for OptimisticLockRetry.
+ * <p>
+ * This test class verifies that optimistic lock conflicts are retried up to the
+ * configured number of attempts and that retries are counted.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+class OptimisticLockRetryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticLockRetry retry;
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    /*
+     * Set up a retry policy with three attempts and no backoff.
+     */
+    @BeforeEach
+    void setUp() {
+        AddressProperties properties = new AddressProperties();
+        properties.getRetry().setMaxAttempts(3);
+        properties.getRetry().setBackoff(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        retry = new OptimisticLockRetry(properties, meterRegistry);
+    }
+
+    /*
+     * Test that a conflicting action succeeds once the conflict is gone.
+     */
+    @Test
+    @DisplayName("Test Execute - Succeeds After Retry")
+    void testExecute_SucceedsAfterRetry() {
+        log.info("Running testExecute_SucceedsAfterRetry");
+        String result = retry.execute("update", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return "done";
+        });
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, meterRegistry.counter("address.optimistic.lock.retries", "operation", "update").count());
+        log.info("Test testExecute_SucceedsAfterRetry passed");
+    }
+
+    /*
+     * Test that the conflict is rethrown once all attempts are used.
+     */
+    @Test
+    @DisplayName("Test Execute - Retries Exhausted")
+    void testExecute_RetriesExhausted() {
+        log.info("Running testExecute_RetriesExhausted");
+        assertThrows(OptimisticLockingFailureException.class, () -> retry.execute("update", () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("conflict");
+        }));
+        assertEquals(3, attempts.get());
+        assertEquals(1, meterRegistry.counter("address.optimistic.lock.exhausted", "operation", "update").count());
+        log.info("Test testExecute_RetriesExhausted passed");
+    }
+
+    /*
+     * Test that other exceptions are not retried.
+     */
+    @Test
+    @DisplayName("Test Execute - Other Exception Not Retried")
+    void testExecute_OtherExceptionNotRetried() {
+        log.info("Running testExecute_OtherExceptionNotRetried");
+        assertThrows(IllegalStateException.class, () -> retry.execute("update", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("failure");
+        }));
+        assertEquals(1, attempts.get());
+        log.info("Test testExecute_OtherExceptionNotRetried passed");
+    }
+}
@@ -0,0 +1,135 @@
+package com.sh.testcontainers_demo.service;
+
+import com.sh.testcontainers_demo.cache.AddressAutocompleteIndex;
+import com.sh.testcontainers_demo.dto.AddressRequest;
+import com.sh.testcontainers_demo.dto.UserRequest;
+import com.sh.testcontainers_demo.dto.UserResponse;
+import com.sh.testcontainers_demo.entity.Address;
+import com.sh.testcontainers_demo.repository.AddressRepository;
+import com.sh.testcontainers_demo.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Integration tests for UserService writes racing each other.
+ * <p>
+ * This test class verifies that deleting a user while another transaction adds an address
+ * to it leaves the address caches and indexes consistent with the database. The writes are
+ * interleaved by a statement inspector that runs the other write just before a given statement.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.sh.testcontainers_demo.service.UserServiceConcurrencyTest$Interleaving")
+class UserServiceConcurrencyTest {
+
+    /*
+     * Statement inspector running the registered write once, just before the first statement
+     * starting with the registered prefix is prepared.
+     */
+    public static class Interleaving implements StatementInspector {
+
+        private static final AtomicReference<String> PREFIX = new AtomicReference<>();
+        private static volatile Runnable write;
+
+        static void before(String prefix, Runnable write) {
+            Interleaving.write = write;
+            PREFIX.set(prefix);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            String prefix = PREFIX.get();
+            if (prefix != null && sql.stripLeading().toLowerCase(Locale.ROOT).startsWith(prefix)
+                    && PREFIX.compareAndSet(prefix, null)) {
+                write.run();
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private AddressAutocompleteIndex addressAutocompleteIndex;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    /*
+     * Stop the updating thread and drop an interleaving that did not run.
+     */
+    @AfterEach
+    void tearDown() {
+        Interleaving.before(null, null);
+        executor.shutdownNow();
+    }
+
+    /*
+     * Test deleting a user while an update adds an address to it, right after the delete
+     * has read the IDs of the addresses to evict and before it records their tombstones.
+     * Verifies that only one of them succeeds and that every address is indexed for
+     * autocompletion if and only if it is still stored. Where the foreign key check waits
+     * for the lock on the user, as on PostgreSQL, the update fails; on H2 the update commits
+     * first and the delete is rolled back. Before, the address was deleted with the user
+     * but stayed in the index.
+     */
+    @Test
+    @DisplayName("Test Delete User - Address Added Concurrently")
+    void testDeleteUser_AddressAddedConcurrently() throws Exception {
+        log.info("Running testDeleteUser_AddressAddedConcurrently");
+        AddressRequest kept = new AddressRequest("1 Kept Street", "City", "ST", "00000", "Country");
+        AddressRequest raced = new AddressRequest("2 Raced Street", "City", "ST", "00000", "Country");
+        UserResponse user = userService.createUser(new UserRequest("Owner", "owner@example.com", List.of(kept)));
+        AtomicReference<Future<UserResponse>> update = new AtomicReference<>();
+        Interleaving.before("insert into address_tombstone", () -> {
+            update.set(executor.submit(() -> userService.updateUser(user.id(),
+                    new UserRequest("Owner", "owner@example.com", List.of(kept, raced)))));
+            try {
+                update.get().get(1, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                log.info("Update held back by the delete");
+            } catch (Exception e) {
+                log.info("Update failed: {}", e.getMessage());
+            }
+        });
+
+        Throwable deleteFailure = catchThrowable(() -> userService.deleteUser(user.id()));
+        Throwable updateFailure = catchThrowable(() -> update.get().get(5, TimeUnit.SECONDS));
+
+        assertThat(deleteFailure == null).isNotEqualTo(updateFailure == null);
+        assertThat(userRepository.existsById(user.id())).isEqualTo(deleteFailure != null);
+        List<String> stored = addressRepository.findAll().stream().map(Address::getStreet).toList();
+        for (AddressRequest address : List.of(kept, raced)) {
+            assertThat(addressAutocompleteIndex.suggest(AddressAutocompleteIndex.Field.STREET, address.street(), 10))
+                    .as(address.street())
+                    .hasSize(stored.contains(address.street()) ? 1 : 0);
+        }
+        log.info("Test testDeleteUser_AddressAddedConcurrently passed");
+    }
+}
@@ -0,0 +1,356 @@
+package com.sh.testcontainers_demo.service;
+
+import com.sh.testcontainers_demo.cache.AddressAutocompleteIndex;
+import com.sh.testcontainers_demo.cache.AddressIdFilter;
+import com.sh.testcontainers_demo.cache.AddressResponseCache;
+import com.sh.testcontainers_demo.config.UserProperties;
+import com.sh.testcontainers_demo.dto.AddressRequest;
+import com.sh.testcontainers_demo.dto.AddressResponse;
+import com.sh.testcontainers_demo.dto.BulkUserUpsertResponse;
+import com.sh.testcontainers_demo.dto.CursorPage;
+import com.sh.testcontainers_demo.dto.UserRequest;
+import com.sh.testcontainers_demo.dto.UserResponse;
+import com.sh.testcontainers_demo.dto.UserUpsertRequest;
+import com.sh.testcontainers_demo.entity.Address;
+import com.sh.testcontainers_demo.entity.User;
+import com.sh.testcontainers_demo.entity.mapper.AddressMapper;
+import com.sh.testcontainers_demo.entity.mapper.UserMapper;
+import com.sh.testcontainers_demo.exception.UserNotFoundException;
+import com.sh.testcontainers_demo.repository.AddressRepository;
+import com.sh.testcontainers_demo.repository.AddressTombstoneRepository;
+import com.sh.testcontainers_demo.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for UserService.
+ * <p>
+ * This test class verifies the user operations and that the address caches and
+ * indexes follow the addresses written through the user cascade.
+ * It uses Mockito to mock dependencies and JUnit 5 for assertions.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Slf4j
+class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserMapper userMapper;
+    @Mock
+    private AddressMapper addressMapper;
+    @Mock
+    private AddressRepository addressRepository;
+    @Mock
+    private AddressTombstoneRepository addressTombstoneRepository;
+    @Mock
+    private AddressResponseCache addressResponseCache;
+    @Mock
+    private AddressAutocompleteIndex addressAutocompleteIndex;
+    @Mock
+    private AddressIdFilter addressIdFilter;
+    @Spy
+    private UserProperties userProperties = new UserProperties();
+    @InjectMocks
+    private UserService userService;
+
+    private User user;
+    private UserResponse userResponse;
+    private AutoCloseable mocks;
+
+    /*
+     * Set up test data and mocks before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        user = User.builder().id(10L).name("Name").email("name@example.com").address(new ArrayList<>()).build();
+        user.getAddress().add(address(1L, "1 Street"));
+        user.getAddress().add(address(2L, "2 Street"));
+        userResponse = new UserResponse(10L, "Name", "name@example.com", null, null, null, null, List.of());
+    }
+
+    /*
+     * Clean up mocks after each test.
+     */
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    /*
+     * Test creating a user with addresses.
+     * Verifies that the new addresses are added to the ID filter and the autocomplete index.
+     */
+    @Test
+    @DisplayName("Test Create User")
+    void testCreateUser() {
+        log.info("Running testCreateUser");
+        UserRequest request = userRequest(2);
+        when(userMapper.toEntity(request)).thenReturn(user);
+        when(userRepository.save(user)).thenReturn(user);
+        when(userMapper.toDto(user)).thenReturn(userResponse);
+        assertEquals(userResponse, userService.createUser(request));
+        verify(addressIdFilter).add(1L);
+        verify(addressIdFilter).add(2L);
+        verify(addressAutocompleteIndex).put(new AddressAutocompleteIndex.Entry(2L, "2 Street", "City"));
+        log.info("Test testCreateUser passed");
+    }
+
+    /*
+     * Test retrieving a user with and without its addresses.
+     * Verifies that the addresses are only fetched, through the entity graph, when requested.
+     */
+    @Test
+    @DisplayName("Test Get User By ID")
+    void testGetUserById() {
+        log.info("Running testGetUserById");
+        UserResponse withoutAddress = new UserResponse(10L, "Name", "name@example.com", null, null, null, null, null);
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+        when(userRepository.findWithAddressById(10L)).thenReturn(Optional.of(user));
+        when(userMapper.toDtoWithoutAddress(user)).thenReturn(withoutAddress);
+        when(userMapper.toDto(user)).thenReturn(userResponse);
+        assertEquals(withoutAddress, userService.getUserById(10L, false));
+        verify(userRepository, never()).findWithAddressById(any());
+        assertEquals(userResponse, userService.getUserById(10L, true));
+        verify(userRepository).findWithAddressById(10L);
+        log.info("Test testGetUserById passed");
+    }
+
+    /*
+     * Test retrieving a user that does not exist.
+     */
+    @Test
+    @DisplayName("Test Get User By ID - Not Found")
+    void testGetUserById_NotFound() {
+        log.info("Running testGetUserById_NotFound");
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        when(userRepository.findWithAddressById(99L)).thenReturn(Optional.empty());
+        UserNotFoundException ex = assertThrows(UserNotFoundException.class, () -> userService.getUserById(99L, false));
+        assertTrue(ex.getMessage().contains("User not found"));
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(99L, true));
+        log.info("Test testGetUserById_NotFound passed");
+    }
+
+    /*
+     * Test retrieving a page of users with their addresses.
+     * Verifies that the page is decided on the IDs first and only the page is fetched with addresses.
+     */
+    @Test
+    @DisplayName("Test Get User Page - With Addresses")
+    void testGetUserPage_WithAddress() {
+        log.info("Running testGetUserPage_WithAddress");
+        when(userRepository.findIdsByIdGreaterThan(5L, Limit.of(2))).thenReturn(List.of(10L, 11L));
+        when(userRepository.findWithAddressByIdInOrderByIdAsc(List.of(10L))).thenReturn(List.of(user));
+        when(userMapper.toDto(user)).thenReturn(userResponse);
+        CursorPage<UserResponse> page = userService.getUserPage(5L, 1, true);
+        assertEquals(List.of(userResponse), page.content());
+        assertEquals("10", page.nextCursor());
+        verify(userRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+        log.info("Test testGetUserPage_WithAddress passed");
+    }
+
+    /*
+     * Test retrieving a page of the addresses of a user.
+     * Verifies that the existence of the user is not checked when the page has addresses.
+     */
+    @Test
+    @DisplayName("Test Get User Address Page")
+    void testGetUserAddressPage() {
+        log.info("Running testGetUserAddressPage");
+        AddressResponse first = addressResponse(1L);
+        when(addressRepository.findResponsesByUserIdAndIdGreaterThan(10L, 0L, Limit.of(2)))
+                .thenReturn(List.of(first, addressResponse(2L)));
+        CursorPage<AddressResponse> page = userService.getUserAddressPage(10L, null, 1);
+        assertEquals(List.of(first), page.content());
+        assertEquals("1", page.nextCursor());
+        verify(userRepository, never()).existsById(any());
+        log.info("Test testGetUserAddressPage passed");
+    }
+
+    /*
+     * Test retrieving an empty page of addresses.
+     * Verifies that an existing user gets an empty page and an unknown one a not found error.
+     */
+    @Test
+    @DisplayName("Test Get User Address Page - Empty")
+    void testGetUserAddressPage_Empty() {
+        log.info("Running testGetUserAddressPage_Empty");
+        when(addressRepository.findResponsesByUserIdAndIdGreaterThan(any(), any(), any())).thenReturn(List.of());
+        when(userRepository.existsById(10L)).thenReturn(true);
+        CursorPage<AddressResponse> page = userService.getUserAddressPage(10L, 5L, 1);
+        assertTrue(page.content().isEmpty());
+        assertNull(page.nextCursor());
+        assertThrows(UserNotFoundException.class, () -> userService.getUserAddressPage(99L, null, 1));
+        log.info("Test testGetUserAddressPage_Empty passed");
+    }
+
+    /*
+     * Test updating a user with fewer addresses than it has.
+     * Verifies that the first address is updated in place and the surplus one is deleted with a tombstone.
+     */
+    @Test
+    @DisplayName("Test Update User - Removing Addresses")
+    void testUpdateUser_RemovingAddresses() {
+        log.info("Running testUpdateUser_RemovingAddresses");
+        Address first = user.getAddress().getFirst();
+        UserRequest request = userRequest(1);
+        when(userRepository.findWithAddressById(10L)).thenReturn(Optional.of(user));
+        when(userMapper.toDto(user)).thenReturn(userResponse);
+        userService.updateUser(10L, request);
+        verify(userMapper).updateEntity(request, user);
+        verify(addressMapper).updateEntity(request.address().getFirst(), first);
+        assertEquals(List.of(first), user.getAddress());
+        verify(addressTombstoneRepository).insertTombstones(eq(List.of(2L)), any(Instant.class));
+        verify(addressAutocompleteIndex).remove(2L);
+        verify(addressResponseCache).invalidate(2L);
+        verify(addressResponseCache).invalidate(1L);
+        verify(userRepository).flush();
+        log.info("Test testUpdateUser_RemovingAddresses passed");
+    }
+
+    /*
+     * Test updating a user with more addresses than it has.
+     * Verifies that the additional address is linked to the user and nothing is deleted.
+     */
+    @Test
+    @DisplayName("Test Update User - Adding Addresses")
+    void testUpdateUser_AddingAddresses() {
+        log.info("Running testUpdateUser_AddingAddresses");
+        UserRequest request = userRequest(3);
+        Address added = address(null, "3 Street");
+        when(userRepository.findWithAddressById(10L)).thenReturn(Optional.of(user));
+        when(addressMapper.toEntity(request.address().getLast())).thenReturn(added);
+        when(userMapper.toDto(user)).thenReturn(userResponse);
+        userService.updateUser(10L, request);
+        assertEquals(3, user.getAddress().size());
+        assertSame(user, added.getUser());
+        verify(addressTombstoneRepository, never()).insertTombstones(any(), any());
+        log.info("Test testUpdateUser_AddingAddresses passed");
+    }
+
+    /*
+     * Test upserting a user by email.
+     * Verifies that an unchanged user is reported as not written.
+     */
+    @Test
+    @DisplayName("Test Upsert User")
+    void testUpsertUser() {
+        log.info("Running testUpsertUser");
+        UserUpsertRequest request = new UserUpsertRequest("name@example.com", "Name");
+        when(userMapper.toUpsertEntity(request)).thenReturn(user);
+        when(userRepository.upsertByEmail(List.of(user))).thenReturn(1, 0);
+        assertTrue(userService.upsertUser(request));
+        assertFalse(userService.upsertUser(request));
+        log.info("Test testUpsertUser passed");
+    }
+
+    /*
+     * Test upserting many users by email.
+     * Verifies that duplicate emails keep their last occurrence and that users are written in chunks.
+     */
+    @Test
+    @DisplayName("Test Upsert Users")
+    void testUpsertUsers() {
+        log.info("Running testUpsertUsers");
+        userProperties.getBulk().setChunkSize(2);
+        List<UserUpsertRequest> requests = List.of(
+                new UserUpsertRequest("a@example.com", "A"),
+                new UserUpsertRequest("b@example.com", "B"),
+                new UserUpsertRequest("a@example.com", "A2"),
+                new UserUpsertRequest("c@example.com", "C"));
+        requests.forEach(request -> when(userMapper.toUpsertEntity(request))
+                .thenReturn(User.builder().email(request.email()).name(request.name()).build()));
+        when(userRepository.upsertByEmail(any())).thenReturn(2, 1);
+        BulkUserUpsertResponse response = userService.upsertUsers(requests);
+        assertEquals(new BulkUserUpsertResponse(3, 3), response);
+        InOrder inOrder = inOrder(userRepository);
+        inOrder.verify(userRepository).upsertByEmail(argThat(users -> users.stream().map(User::getName).toList().equals(List.of("A2", "B"))));
+        inOrder.verify(userRepository).upsertByEmail(argThat(users -> users.stream().map(User::getName).toList().equals(List.of("C"))));
+        log.info("Test testUpsertUsers passed");
+    }
+
+    /*
+     * Test deleting a user.
+     * Verifies that the user is locked before its address IDs are read, and that exactly
+     * those addresses are removed in bulk after their tombstones and cleared from the caches.
+     */
+    @Test
+    @DisplayName("Test Delete User")
+    void testDeleteUser() {
+        log.info("Running testDeleteUser");
+        when(userRepository.lockById(10L)).thenReturn(Optional.of(10L));
+        when(addressRepository.findIdsByUserId(10L)).thenReturn(List.of(1L, 2L));
+        when(userRepository.deleteUserById(10L)).thenReturn(1);
+        userService.deleteUser(10L);
+        InOrder inOrder = inOrder(addressTombstoneRepository, addressRepository, userRepository);
+        inOrder.verify(userRepository).lockById(10L);
+        inOrder.verify(addressRepository).findIdsByUserId(10L);
+        inOrder.verify(addressTombstoneRepository).insertTombstones(eq(List.of(1L, 2L)), any(Instant.class));
+        inOrder.verify(addressRepository).deleteAddressesByIdIn(List.of(1L, 2L));
+        inOrder.verify(userRepository).deleteUserById(10L);
+        verify(userRepository, never()).findWithAddressById(any());
+        verify(addressResponseCache).invalidate(1L);
+        verify(addressAutocompleteIndex).remove(2L);
+        log.info("Test testDeleteUser passed");
+    }
+
+    /*
+     * Test deleting a user that does not exist.
+     * Verifies that nothing is read or deleted past the lock and the caches are left alone.
+     */
+    @Test
+    @DisplayName("Test Delete User - Not Found")
+    void testDeleteUser_NotFound() {
+        log.info("Running testDeleteUser_NotFound");
+        when(userRepository.lockById(99L)).thenReturn(Optional.empty());
+        assertThrows(UserNotFoundException.class, () -> userService.deleteUser(99L));
+        verify(addressRepository, never()).findIdsByUserId(any());
+        verify(addressTombstoneRepository, never()).insertTombstones(any(), any());
+        verify(addressRepository, never()).deleteAddressesByIdIn(any());
+        verify(userRepository, never()).deleteUserById(any());
+        verify(addressResponseCache, never()).invalidate(any());
+        log.info("Test testDeleteUser_NotFound passed");
+    }
+
+    private static Address address(Long id, String street) {
+        return Address.builder().id(id).street(street).city("City").state("ST").zipCode("00000").country("Country").build();
+    }
+
+    private static AddressResponse addressResponse(Long id) {
+        return new AddressResponse(id, id + " Street", "City", "ST", "00000", "Country", null, null, null, null, 0L);
+    }
+
+    private static UserRequest userRequest(int addresses) {
+        List<AddressRequest> requests = new ArrayList<>();
+        for (int i = 0; i < addresses; i++) {
+            requests.add(new AddressRequest((i + 1) + " Street", "City", "ST", "00000", "Country"));
+        }
+        return new UserRequest("Name", "name@example.com", requests);
+    }
+}
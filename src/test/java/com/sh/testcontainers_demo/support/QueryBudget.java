@@ -0,0 +1,43 @@
+package com.sh.testcontainers_demo.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a test method may execute.
+ * <p>
+ * Checked by {@link QueryBudgetExtension} after the test method has run; the test fails when
+ * any statement type exceeds its budget. Statements executed in {@code @BeforeEach} methods
+ * are not counted. Requires {@link SqlStatementCounting} on the test class.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    /**
+     * @return the maximum number of SELECT statements
+     */
+    int select() default 0;
+
+    /**
+     * @return the maximum number of INSERT statements, MERGE statements included
+     */
+    int insert() default 0;
+
+    /**
+     * @return the maximum number of UPDATE statements
+     */
+    int update() default 0;
+
+    /**
+     * @return the maximum number of DELETE statements
+     */
+    int delete() default 0;
+}
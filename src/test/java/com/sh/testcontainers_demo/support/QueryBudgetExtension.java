@@ -0,0 +1,52 @@
+package com.sh.testcontainers_demo.support;
+
+import com.sh.testcontainers_demo.support.SqlStatementCounter.QueryCount;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit extension that enforces the {@link QueryBudget} of a test method.
+ * <p>
+ * Resets {@link SqlStatementCounter} right before the test method runs and compares the
+ * counted statements with the budget right after it, failing the test when it is exceeded.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        SqlStatementCounter.reset();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class).ifPresent(budget -> {
+            QueryCount count = SqlStatementCounter.current();
+            List<String> exceeded = new ArrayList<>();
+            check(exceeded, "SELECT", count.select(), budget.select());
+            check(exceeded, "INSERT", count.insert(), budget.insert());
+            check(exceeded, "UPDATE", count.update(), budget.update());
+            check(exceeded, "DELETE", count.delete(), budget.delete());
+            if (!exceeded.isEmpty()) {
+                throw new AssertionError("Query budget of " + context.getDisplayName() + " exceeded: "
+                        + String.join(", ", exceeded));
+            }
+        });
+    }
+
+    private static void check(List<String> exceeded, String type, int actual, int budget) {
+        if (actual > budget) {
+            exceeded.add(type + " " + actual + " > " + budget);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.sh.testcontainers_demo.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hibernate StatementInspector that counts the SQL statements sent to the database.
+ * <p>
+ * Every statement Hibernate prepares passes through this inspector and is counted by
+ * its type. A JDBC batch is prepared once and therefore counts as a single statement.
+ * A MERGE counts as an INSERT, and a SELECT from the {@code OLD TABLE} of a DELETE as a DELETE.
+ * The counters are global, so tests using them must not run in parallel.
+ * </p>
+ * <p>
+ * Enable it on a test class with {@link SqlStatementCounting} and read the counts with
+ * {@link #current()} or enforce them with {@link QueryBudget}.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final AtomicInteger SELECTS = new AtomicInteger();
+    private static final AtomicInteger INSERTS = new AtomicInteger();
+    private static final AtomicInteger UPDATES = new AtomicInteger();
+    private static final AtomicInteger DELETES = new AtomicInteger();
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Counts the given SQL statement and returns it unchanged.
+     *
+     * @param sql the SQL statement about to be prepared
+     * @return the same SQL statement
+     */
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        if (statement.startsWith("select") && statement.contains("from old table (delete")) {
+            DELETES.incrementAndGet();
+        } else if (statement.startsWith("select") || statement.startsWith("with")) {
+            SELECTS.incrementAndGet();
+        } else if (statement.startsWith("insert") || statement.startsWith("merge")) {
+            INSERTS.incrementAndGet();
+        } else if (statement.startsWith("update")) {
+            UPDATES.incrementAndGet();
+        } else if (statement.startsWith("delete")) {
+            DELETES.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public static void reset() {
+        SELECTS.set(0);
+        INSERTS.set(0);
+        UPDATES.set(0);
+        DELETES.set(0);
+        STATEMENTS.clear();
+    }
+
+    /**
+     * Returns the statements counted since the last reset.
+     *
+     * @return the current statement counts
+     */
+    public static QueryCount current() {
+        return new QueryCount(SELECTS.get(), INSERTS.get(), UPDATES.get(), DELETES.get());
+    }
+
+    /**
+     * Returns the SQL of the statements counted since the last reset, in execution order.
+     *
+     * @return the SQL statements
+     */
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    /**
+     * Number of statements of each type.
+     *
+     * @param select the number of SELECT statements
+     * @param insert the number of INSERT statements
+     * @param update the number of UPDATE statements
+     * @param delete the number of DELETE statements
+     */
+    public record QueryCount(int select, int insert, int update, int delete) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.sh.testcontainers_demo.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enables SQL statement counting for a Spring test class.
+ * <p>
+ * Registers {@link SqlStatementCounter} as the Hibernate statement inspector and resets it
+ * before each test, so that test methods can declare a {@link QueryBudget}. It can be combined
+ * with {@code @SpringBootTest} and {@code @DataJpaTest}.
+ * </p>
+ *
+ * @author Shailesh Halor
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ExtendWith(QueryBudgetExtension.class)
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.sh.testcontainers_demo.support.SqlStatementCounter")
+public @interface SqlStatementCounting {
+}